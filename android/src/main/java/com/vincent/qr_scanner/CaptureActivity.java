@@ -68,6 +68,8 @@ public class CaptureActivity extends AppCompatActivity implements CameraScan.OnS
     public void initCameraScan(){
         mCameraScan = new DefaultCameraScan(this,previewView);
         mCameraScan.setOnScanResultCallback(this);
+        //只识别扫码框内的图像
+        mCameraScan.bindViewfinderView(viewfinderView);
     }
 
 
@@ -5,10 +5,13 @@ import android.view.View;
 
 import androidx.annotation.Nullable;
 import androidx.camera.core.CameraSelector;
+import androidx.camera.core.ImageProxy;
 
 import com.vincent.qr_scanner.decoder.AreaRectAnalyzer;
 import com.vincent.qr_scanner.decoder.ImageAnalyzer;
+import com.vincent.qr_scanner.decoder.MultiCodeAnalyzer;
 import com.vincent.qr_scanner.decoder.MultiFormatAnalyzer;
+import com.vincent.qr_scanner.view.ViewfinderView;
 import com.google.zxing.Result;
 import com.google.zxing.qrcode.QRCodeReader;
 
@@ -19,6 +22,7 @@ import com.google.zxing.qrcode.QRCodeReader;
  */
 public abstract class CameraScan implements ICamera,ICameraControl {
     public static String SCAN_RESULT = "SCAN_RESULT";
+    public static String SCAN_RESULTS = "SCAN_RESULTS";
 
     /** A camera on the device facing the same direction as the device's screen. */
     public static int LENS_FACING_FRONT = CameraSelector.LENS_FACING_FRONT;
@@ -94,6 +98,12 @@ public abstract class CameraScan implements ICamera,ICameraControl {
      */
     public abstract CameraScan setAnalyzer(ImageAnalyzer analyzer);
 
+    /**
+     * 设置帧率调节器，根据实际的解码耗时跳过部分帧，降低长时间连续扫码时的CPU占用和耗电；为{@code null}时则分析每一帧
+     * @param governor
+     */
+    public abstract CameraScan setFrameRateGovernor(@Nullable FrameRateGovernor governor);
+
     /**
      * 设置是否震动
      * @param vibrate
@@ -112,12 +122,25 @@ public abstract class CameraScan implements ICamera,ICameraControl {
      */
     public abstract CameraScan setOnScanResultCallback(OnScanResultCallback callback);
 
+    /**
+     * 设置多码扫码结果回调，设置后会通过{@link ImageAnalyzer#analyzeMultiple(ImageProxy, int)}识别每一帧中所有的码，
+     * 需配合支持多码识别的分析器使用（如：{@link MultiCodeAnalyzer}）；设置后{@link #setOnScanResultCallback(OnScanResultCallback)}将不再回调
+     * @param callback
+     */
+    public abstract CameraScan setOnScanMultiResultCallback(@Nullable OnScanMultiResultCallback callback);
+
     /**
      * 绑定手电筒，绑定后可根据光线传感器，动态显示或隐藏手电筒
      * @param v
      */
     public abstract CameraScan bindFlashlightView(@Nullable View v);
 
+    /**
+     * 绑定扫码框，绑定后会将扫码框映射为分析图像中的区域，只识别扫码框内的图像；需配合{@link AreaRectAnalyzer}使用
+     * @param viewfinderView 为{@code null}时解除绑定
+     */
+    public abstract CameraScan bindViewfinderView(@Nullable ViewfinderView viewfinderView);
+
     /**
      * 设置光线足够暗的阈值（单位：lux），需要通过{@link #bindFlashlightView(View)}绑定手电筒才有效
      * @param lightLux
@@ -134,6 +157,15 @@ public abstract class CameraScan implements ICamera,ICameraControl {
         boolean onScanResultCallback(Result result);
     }
 
+    public interface OnScanMultiResultCallback{
+        /**
+         * 一帧中识别到的所有码
+         * @param results
+         * @return 返回{@code true}表示拦截结果，可继续连扫
+         */
+        boolean onScanMultiResultCallback(Result[] results);
+    }
+
     @Nullable
     public static String parseScanResult(Intent data){
         if(data != null){
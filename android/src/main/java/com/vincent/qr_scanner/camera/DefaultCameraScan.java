@@ -4,6 +4,8 @@ import android.annotation.SuppressLint;
 import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
+import android.content.res.Configuration;
+import android.graphics.Rect;
 import android.util.DisplayMetrics;
 import android.util.Log;
 import android.view.MotionEvent;
@@ -15,6 +17,7 @@ import androidx.annotation.Nullable;
 import androidx.camera.core.Camera;
 import androidx.camera.core.CameraSelector;
 import androidx.camera.core.FocusMeteringAction;
+import androidx.camera.core.ImageProxy;
 import androidx.camera.core.ImageAnalysis;
 import androidx.camera.core.MeteringPoint;
 import androidx.camera.core.Preview;
@@ -28,10 +31,13 @@ import androidx.fragment.app.FragmentActivity;
 import androidx.lifecycle.LifecycleOwner;
 import androidx.lifecycle.MutableLiveData;
 
+import com.vincent.qr_scanner.decoder.AreaRectAnalyzer;
+import com.vincent.qr_scanner.decoder.CompositeAnalyzer;
 import com.vincent.qr_scanner.decoder.ImageAnalyzer;
 import com.vincent.qr_scanner.decoder.MultiFormatAnalyzer;
 import com.vincent.qr_scanner.utils.BeepManager;
 import com.vincent.qr_scanner.utils.LightManager;
+import com.vincent.qr_scanner.view.ViewfinderView;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.Result;
@@ -70,6 +76,7 @@ public class DefaultCameraScan extends CameraScan {
 
     private CameraConfig mCameraConfig;
     private ImageAnalyzer mAnalyzer;
+    private volatile FrameRateGovernor mFrameRateGovernor;
 
     /**
      * 是否分析
@@ -83,9 +90,15 @@ public class DefaultCameraScan extends CameraScan {
 
     private View flashlightView;
 
+    private ViewfinderView mViewfinderView;
+    private volatile PreviewTransform mPreviewTransform;
+    private final View.OnLayoutChangeListener mOnPreviewLayoutChangeListener = (v, left, top, right, bottom, oldLeft, oldTop, oldRight, oldBottom) -> updatePreviewTransform();
+
     private MutableLiveData<Result> mResultLiveData;
+    private MutableLiveData<Result[]> mResultsLiveData;
 
     private OnScanResultCallback mOnScanResultCallback;
+    private volatile OnScanMultiResultCallback mOnScanMultiResultCallback;
 
     private BeepManager mBeepManager;
     private LightManager mLightManager;
@@ -134,6 +147,10 @@ public class DefaultCameraScan extends CameraScan {
         mResultLiveData.observe(mLifecycleOwner, result -> {
             handleAnalyzeResult(result);
         });
+        mResultsLiveData = new MutableLiveData<>();
+        mResultsLiveData.observe(mLifecycleOwner, results -> {
+            handleAnalyzeResults(results);
+        });
 
         mOrientation = mContext.getResources().getConfiguration().orientation;
         ScaleGestureDetector scaleGestureDetector = new ScaleGestureDetector(mContext, mOnScaleGestureListener);
@@ -235,9 +252,27 @@ public class DefaultCameraScan extends CameraScan {
                         .setBackpressureStrategy(ImageAnalysis.STRATEGY_KEEP_ONLY_LATEST));
                 imageAnalysis.setAnalyzer(Executors.newSingleThreadExecutor(), image -> {
                     if(isAnalyze && !isAnalyzeResult && mAnalyzer != null){
-                        Result result = mAnalyzer.analyze(image,mOrientation);
-                        if(result != null){
-                            mResultLiveData.postValue(result);
+                        FrameRateGovernor governor = mFrameRateGovernor;
+                        long startTime = System.nanoTime();
+                        if(governor == null || governor.shouldAnalyze(startTime)){
+                            updateAnalyzeAreaRect(image);
+                            boolean isFound;
+                            if(mOnScanMultiResultCallback != null){
+                                Result[] results = mAnalyzer.analyzeMultiple(image,mOrientation);
+                                isFound = results != null && results.length > 0;
+                                if(isFound){
+                                    mResultsLiveData.postValue(results);
+                                }
+                            }else{
+                                Result result = mAnalyzer.analyze(image,mOrientation);
+                                isFound = result != null;
+                                if(isFound){
+                                    mResultLiveData.postValue(result);
+                                }
+                            }
+                            if(governor != null){
+                                governor.onAnalyzed(System.nanoTime() - startTime,isFound);
+                            }
                         }
                     }
                     image.close();
@@ -254,6 +289,52 @@ public class DefaultCameraScan extends CameraScan {
         }, ContextCompat.getMainExecutor(mContext));
     }
 
+    /**
+     * 将扫码框映射为分析图像中的区域，并设置给分析器，在分析线程中执行
+     * @param image
+     */
+    private void updateAnalyzeAreaRect(ImageProxy image){
+        PreviewTransform transform = mPreviewTransform;
+        if(transform != null && (mAnalyzer instanceof AreaRectAnalyzer || mAnalyzer instanceof CompositeAnalyzer)){
+            //竖屏时ImageAnalyzer会先顺时针旋转90度，这里只需处理剩余的旋转角度
+            boolean isPortrait = mOrientation == Configuration.ORIENTATION_PORTRAIT;
+            int width = isPortrait ? image.getHeight() : image.getWidth();
+            int height = isPortrait ? image.getWidth() : image.getHeight();
+            int rotationDegrees = (image.getImageInfo().getRotationDegrees() - (isPortrait ? 90 : 0) + 360) % 360;
+            setAnalyzeAreaRect(transform.mapToImage(width,height,rotationDegrees));
+        }
+    }
+
+    /**
+     * 设置分析器的识别区域，只对支持设置识别区域的分析器有效
+     * @param rect
+     */
+    private void setAnalyzeAreaRect(@Nullable Rect rect){
+        if(mAnalyzer instanceof AreaRectAnalyzer){
+            ((AreaRectAnalyzer)mAnalyzer).setAnalyzeAreaRect(rect);
+        }else if(mAnalyzer instanceof CompositeAnalyzer){
+            ((CompositeAnalyzer)mAnalyzer).setAnalyzeAreaRect(rect);
+        }
+    }
+
+    /**
+     * 根据扫码框和预览控件的布局，更新预览坐标变换，在主线程中执行
+     */
+    private void updatePreviewTransform(){
+        Rect frame = mViewfinderView != null ? mViewfinderView.getFrameRect() : null;
+        if(frame == null || mPreviewView.getWidth() <= 0 || mPreviewView.getHeight() <= 0){
+            mPreviewTransform = null;
+            return;
+        }
+        //扫码框的坐标是相对于ViewfinderView的，需转换为相对于PreviewView的坐标
+        int[] viewfinderLocation = new int[2];
+        int[] previewLocation = new int[2];
+        mViewfinderView.getLocationInWindow(viewfinderLocation);
+        mPreviewView.getLocationInWindow(previewLocation);
+        frame.offset(viewfinderLocation[0] - previewLocation[0],viewfinderLocation[1] - previewLocation[1]);
+        mPreviewTransform = new PreviewTransform(mPreviewView.getWidth(),mPreviewView.getHeight(),mPreviewView.getScaleType(),frame);
+    }
+
     /**
      * 处理分析结果
      * @param result
@@ -286,6 +367,21 @@ public class DefaultCameraScan extends CameraScan {
         scanResultCallback(result);
     }
 
+    /**
+     * 处理多码分析结果
+     * @param results
+     */
+    private synchronized void handleAnalyzeResults(Result[] results){
+        if(isAnalyzeResult || !isAnalyze){
+            return;
+        }
+        isAnalyzeResult = true;
+        if(mBeepManager != null){
+            mBeepManager.playBeepSoundAndVibrate();
+        }
+        scanResultsCallback(results);
+    }
+
     private boolean handleAutoZoom(int distance,Result result){
         int size = Math.min(mScreenWidth,mScreenHeight);
         if(distance * 4 < size){
@@ -313,6 +409,27 @@ public class DefaultCameraScan extends CameraScan {
     }
 
 
+    private void scanResultsCallback(Result[] results){
+        OnScanMultiResultCallback callback = mOnScanMultiResultCallback;
+        if(callback != null && callback.onScanMultiResultCallback(results)){
+            //如果拦截了结果，则重置分析结果状态，直接可以连扫
+            isAnalyzeResult = false;
+            return;
+        }
+
+        if(mFragmentActivity != null){
+            String[] texts = new String[results.length];
+            for(int i = 0; i < results.length; i++){
+                texts[i] = results[i].getText();
+            }
+            Intent intent = new Intent();
+            intent.putExtra(SCAN_RESULT,texts[0]);
+            intent.putExtra(SCAN_RESULTS,texts);
+            mFragmentActivity.setResult(Activity.RESULT_OK,intent);
+            mFragmentActivity.finish();
+        }
+    }
+
     @Override
     public void stopCamera(){
         if(mCameraProviderFuture != null){
@@ -341,6 +458,16 @@ public class DefaultCameraScan extends CameraScan {
         return this;
     }
 
+    /**
+     * 设置帧率调节器，可在扫码过程中随时调用
+     * @param governor
+     */
+    @Override
+    public CameraScan setFrameRateGovernor(@Nullable FrameRateGovernor governor) {
+        mFrameRateGovernor = governor;
+        return this;
+    }
+
     @Override
     public void zoomIn(){
         if(mCamera != null){
@@ -451,6 +578,12 @@ public class DefaultCameraScan extends CameraScan {
         return this;
     }
 
+    @Override
+    public CameraScan setOnScanMultiResultCallback(@Nullable OnScanMultiResultCallback callback) {
+        this.mOnScanMultiResultCallback = callback;
+        return this;
+    }
+
     @Nullable
     @Override
     public Camera getCamera(){
@@ -462,6 +595,7 @@ public class DefaultCameraScan extends CameraScan {
     public void release() {
         isAnalyze = false;
         flashlightView = null;
+        bindViewfinderView(null);
         if(mLightManager != null){
             mLightManager.unregister();
         }
@@ -480,6 +614,26 @@ public class DefaultCameraScan extends CameraScan {
         return this;
     }
 
+    @Override
+    public CameraScan bindViewfinderView(@Nullable ViewfinderView viewfinderView) {
+        if(mViewfinderView != null){
+            mViewfinderView.setOnFrameChangedListener(null);
+            mViewfinderView.removeOnLayoutChangeListener(mOnPreviewLayoutChangeListener);
+        }
+        mPreviewView.removeOnLayoutChangeListener(mOnPreviewLayoutChangeListener);
+        mViewfinderView = viewfinderView;
+        if(viewfinderView != null){
+            viewfinderView.setOnFrameChangedListener(frame -> updatePreviewTransform());
+            viewfinderView.addOnLayoutChangeListener(mOnPreviewLayoutChangeListener);
+            mPreviewView.addOnLayoutChangeListener(mOnPreviewLayoutChangeListener);
+        }
+        updatePreviewTransform();
+        if(viewfinderView == null){
+            setAnalyzeAreaRect(null);
+        }
+        return this;
+    }
+
     public CameraScan setDarkLightLux(float lightLux){
         if(mLightManager != null){
             mLightManager.setDarkLightLux(lightLux);
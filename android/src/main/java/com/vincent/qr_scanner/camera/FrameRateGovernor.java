@@ -0,0 +1,179 @@
+package com.vincent.qr_scanner.camera;
+
+import androidx.annotation.FloatRange;
+import androidx.annotation.IntRange;
+
+/**
+ * 帧率调节器：根据实际的解码耗时调节分析的节奏，长时间连续扫码时可明显降低CPU占用和耗电
+ *
+ * 通过指数移动平均记录每帧的解码耗时和相机的帧间隔，当解码耗时超过帧间隔的{@link #setTargetLoad(float)}时，
+ * 会每分析一帧跳过N帧，使分析线程的负载保持在目标范围内；同时两次分析之间的间隔不会超过{@link #setMaxAnalyzeIntervalMillis(int)}，
+ * 保证识别的及时性。识别成功后会立即恢复逐帧分析，直到重新统计出新的节奏
+ *
+ * 主要在分析线程中调用，非线程安全
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/06 10:20
+ */
+public class FrameRateGovernor {
+
+    /**
+     * 默认的目标负载
+     */
+    public static final float DEFAULT_TARGET_LOAD = 0.6f;
+    /**
+     * 默认两次分析之间的最大间隔（单位：毫秒）
+     */
+    public static final int DEFAULT_MAX_ANALYZE_INTERVAL_MILLIS = 300;
+    /**
+     * 还没有统计出帧间隔时，默认按30帧每秒计算
+     */
+    private static final float DEFAULT_FRAME_INTERVAL_MILLIS = 1000f / 30;
+    /**
+     * 指数移动平均的平滑系数
+     */
+    private static final float SMOOTHING_FACTOR = 0.2f;
+
+    private float targetLoad = DEFAULT_TARGET_LOAD;
+    private int maxAnalyzeIntervalMillis = DEFAULT_MAX_ANALYZE_INTERVAL_MILLIS;
+
+    private float averageDecodeMillis;
+    private float averageFrameIntervalMillis = DEFAULT_FRAME_INTERVAL_MILLIS;
+    private long lastFrameNanos;
+    private boolean isLastFrameSkipped;
+    private int skipFrames;
+    private int skippedCount;
+
+    /**
+     * 目标负载：分析线程用于解码的时间占比
+     * @return
+     */
+    public float getTargetLoad() {
+        return targetLoad;
+    }
+
+    /**
+     * 设置目标负载
+     * @param targetLoad 默认为{@link #DEFAULT_TARGET_LOAD}，值越小跳过的帧越多，越省电，但识别的及时性也会相应降低
+     * @return
+     */
+    public FrameRateGovernor setTargetLoad(@FloatRange(from = 0.0, to = 1.0, fromInclusive = false) float targetLoad) {
+        this.targetLoad = targetLoad;
+        return this;
+    }
+
+    /**
+     * 两次分析之间的最大间隔（单位：毫秒）
+     * @return
+     */
+    public int getMaxAnalyzeIntervalMillis() {
+        return maxAnalyzeIntervalMillis;
+    }
+
+    /**
+     * 设置两次分析之间的最大间隔
+     * @param maxAnalyzeIntervalMillis 默认为{@link #DEFAULT_MAX_ANALYZE_INTERVAL_MILLIS}
+     * @return
+     */
+    public FrameRateGovernor setMaxAnalyzeIntervalMillis(@IntRange(from = 0) int maxAnalyzeIntervalMillis) {
+        this.maxAnalyzeIntervalMillis = maxAnalyzeIntervalMillis;
+        return this;
+    }
+
+    /**
+     * 每收到一帧时调用，判断当前帧是否需要分析
+     * @param timestampNanos 当前帧的时间戳（单位：纳秒）
+     * @return {@code true}表示需要分析当前帧，分析完成后需调用{@link #onAnalyzed(long, boolean)}
+     */
+    public boolean shouldAnalyze(long timestampNanos) {
+        //只在上一帧被跳过时统计帧间隔，否则帧间隔中会包含解码耗时（分析期间的帧会被丢弃）
+        if (isLastFrameSkipped && timestampNanos > lastFrameNanos) {
+            averageFrameIntervalMillis = smooth(averageFrameIntervalMillis, (timestampNanos - lastFrameNanos) / 1e6f);
+        }
+        lastFrameNanos = timestampNanos;
+        if (skippedCount < skipFrames) {
+            skippedCount++;
+            isLastFrameSkipped = true;
+            return false;
+        }
+        skippedCount = 0;
+        isLastFrameSkipped = false;
+        return true;
+    }
+
+    /**
+     * 分析完一帧后调用，记录解码耗时并更新分析节奏
+     * @param costNanos 解码耗时（单位：纳秒）
+     * @param success 是否识别成功
+     */
+    public void onAnalyzed(long costNanos, boolean success) {
+        float costMillis = costNanos / 1e6f;
+        averageDecodeMillis = averageDecodeMillis > 0 ? smooth(averageDecodeMillis, costMillis) : costMillis;
+        if (success) {
+            //识别成功时（如：连扫），立即恢复逐帧分析
+            skipFrames = 0;
+            return;
+        }
+        skipFrames = calculateSkipFrames();
+    }
+
+    private int calculateSkipFrames() {
+        float frameInterval = Math.max(averageFrameIntervalMillis, 1f);
+        //每个分析周期（分析一帧并跳过N帧）内，解码耗时占比不超过目标负载
+        int skip = (int) Math.ceil(averageDecodeMillis / (targetLoad * frameInterval)) - 1;
+        //跳过的帧所占的时间不能超过最大间隔
+        int maxSkip = (int) (maxAnalyzeIntervalMillis / frameInterval);
+        return Math.max(0, Math.min(skip, maxSkip));
+    }
+
+    private static float smooth(float average, float value) {
+        return average + SMOOTHING_FACTOR * (value - average);
+    }
+
+    /**
+     * 当前每分析一帧跳过的帧数
+     * @return
+     */
+    public int getSkipFrames() {
+        return skipFrames;
+    }
+
+    /**
+     * 平均解码耗时（单位：毫秒）
+     * @return
+     */
+    public float getAverageDecodeMillis() {
+        return averageDecodeMillis;
+    }
+
+    /**
+     * 平均帧间隔（单位：毫秒）
+     * @return
+     */
+    public float getAverageFrameIntervalMillis() {
+        return averageFrameIntervalMillis;
+    }
+
+    /**
+     * 重置统计信息，开始新的扫码过程
+     */
+    public void reset() {
+        averageDecodeMillis = 0;
+        averageFrameIntervalMillis = DEFAULT_FRAME_INTERVAL_MILLIS;
+        lastFrameNanos = 0;
+        isLastFrameSkipped = false;
+        skipFrames = 0;
+        skippedCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameRateGovernor{" +
+                "targetLoad=" + targetLoad +
+                ", maxAnalyzeIntervalMillis=" + maxAnalyzeIntervalMillis +
+                ", averageDecodeMillis=" + averageDecodeMillis +
+                ", averageFrameIntervalMillis=" + averageFrameIntervalMillis +
+                ", skipFrames=" + skipFrames +
+                '}';
+    }
+}
@@ -0,0 +1,143 @@
+package com.vincent.qr_scanner.camera;
+
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+import androidx.camera.view.PreviewView;
+
+/**
+ * 预览坐标变换：将{@link PreviewView}中的区域（如：扫码框）映射为分析图像中的区域
+ *
+ * 分析图像按{@link PreviewView#getScaleType()}缩放到预览控件中显示，FILL类型会裁掉超出控件的部分，FIT类型会留白；
+ * 分析图像没有完全转正时，还需按剩余的旋转角度将转正后的区域映射回分析图像的坐标系
+ *
+ * 创建后不可修改，可以在分析线程中安全的使用；最近一次映射的结果会被缓存，分析图像尺寸不变时无需重复计算
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/11 10:15
+ */
+public final class PreviewTransform {
+
+    private final int viewWidth;
+    private final int viewHeight;
+    private final PreviewView.ScaleType scaleType;
+    private final Rect viewRect;
+
+    private volatile Mapping lastMapping;
+
+    /**
+     *
+     * @param viewWidth 预览控件的宽
+     * @param viewHeight 预览控件的高
+     * @param scaleType 预览控件的缩放类型
+     * @param viewRect 预览控件中的区域
+     */
+    public PreviewTransform(int viewWidth, int viewHeight, @NonNull PreviewView.ScaleType scaleType, @NonNull Rect viewRect) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.scaleType = scaleType;
+        this.viewRect = new Rect(viewRect);
+    }
+
+    /**
+     * 将预览控件中的区域映射为分析图像中的区域
+     * @param imageWidth 分析图像的宽
+     * @param imageHeight 分析图像的高
+     * @param rotationDegrees 分析图像还需顺时针旋转多少度才能转正，只支持：0、90、180、270
+     * @return 已限制在分析图像范围内的区域
+     */
+    @NonNull
+    public Rect mapToImage(int imageWidth, int imageHeight, int rotationDegrees) {
+        Mapping mapping = lastMapping;
+        if (mapping == null || mapping.imageWidth != imageWidth || mapping.imageHeight != imageHeight || mapping.rotationDegrees != rotationDegrees) {
+            mapping = new Mapping(imageWidth, imageHeight, rotationDegrees, calculate(imageWidth, imageHeight, rotationDegrees));
+            lastMapping = mapping;
+        }
+        return new Rect(mapping.rect);
+    }
+
+    private Rect calculate(int imageWidth, int imageHeight, int rotationDegrees) {
+        boolean isSwap = rotationDegrees == 90 || rotationDegrees == 270;
+        //转正后的图像尺寸
+        int uprightWidth = isSwap ? imageHeight : imageWidth;
+        int uprightHeight = isSwap ? imageWidth : imageHeight;
+        float scaleX = (float) viewWidth / uprightWidth;
+        float scaleY = (float) viewHeight / uprightHeight;
+        float scale;
+        switch (scaleType) {
+            case FIT_START:
+            case FIT_CENTER:
+            case FIT_END:
+                scale = Math.min(scaleX, scaleY);
+                break;
+            default:
+                scale = Math.max(scaleX, scaleY);
+                break;
+        }
+        float offsetX = viewWidth - uprightWidth * scale;
+        float offsetY = viewHeight - uprightHeight * scale;
+        switch (scaleType) {
+            case FILL_START:
+            case FIT_START:
+                offsetX = 0;
+                offsetY = 0;
+                break;
+            case FILL_CENTER:
+            case FIT_CENTER:
+                offsetX /= 2;
+                offsetY /= 2;
+                break;
+            default:
+                break;
+        }
+        //转正后的图像中的区域
+        int left = Math.round((viewRect.left - offsetX) / scale);
+        int top = Math.round((viewRect.top - offsetY) / scale);
+        int right = Math.round((viewRect.right - offsetX) / scale);
+        int bottom = Math.round((viewRect.bottom - offsetY) / scale);
+        Rect rect;
+        switch (rotationDegrees) {
+            case 90:
+                rect = new Rect(top, imageHeight - right, bottom, imageHeight - left);
+                break;
+            case 180:
+                rect = new Rect(imageWidth - right, imageHeight - bottom, imageWidth - left, imageHeight - top);
+                break;
+            case 270:
+                rect = new Rect(imageWidth - bottom, left, imageWidth - top, right);
+                break;
+            default:
+                rect = new Rect(left, top, right, bottom);
+                break;
+        }
+        if (!rect.intersect(0, 0, imageWidth, imageHeight)) {
+            //区域完全在分析图像之外时，使用整个分析图像
+            rect.set(0, 0, imageWidth, imageHeight);
+        }
+        return rect;
+    }
+
+    @Override
+    public String toString() {
+        return "PreviewTransform{" +
+                "viewWidth=" + viewWidth +
+                ", viewHeight=" + viewHeight +
+                ", scaleType=" + scaleType +
+                ", viewRect=" + viewRect +
+                '}';
+    }
+
+    private static final class Mapping {
+        final int imageWidth;
+        final int imageHeight;
+        final int rotationDegrees;
+        final Rect rect;
+
+        Mapping(int imageWidth, int imageHeight, int rotationDegrees, Rect rect) {
+            this.imageWidth = imageWidth;
+            this.imageHeight = imageHeight;
+            this.rotationDegrees = rotationDegrees;
+            this.rect = rect;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * 自适应二值化器：基于局部均值和标准差的Sauvola算法，适用于光线较暗或明暗不均（如：仓库通道、背光）的场景
+ *
+ * 读取一遍亮度数据，以4x4像素的单元为粒度计算积分图和平方积分图，每个单元窗口内的均值和方差都只需查表4次，耗时与窗口大小无关；
+ * 阈值为{@code mean * (1 + k * (std / R - 1))}，对比度低的平坦区域阈值低于均值，噪点不会被误判为黑色；
+ * 同一单元内的像素共用一个阈值，二值化时每个像素只需查表比较一次，耗时与{@link ReusableHybridBinarizer}相当
+ *
+ * 与{@link ReusableHybridBinarizer}一样使用当前线程的{@link BinarizerBuffers}；
+ * 读取单行时也取自二值化后的矩阵，这样一维码也能受益于自适应阈值
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/12 10:20
+ */
+public final class AdaptiveBinarizer extends ReusableGlobalHistogramBinarizer {
+
+    private static final int CELL_SIZE_POWER = 2;
+    private static final int CELL_SIZE = 1 << CELL_SIZE_POWER;
+
+    /**
+     * 窗口半径的最小值
+     */
+    static final int MIN_RADIUS = 8;
+    /**
+     * 窗口半径的最大值
+     */
+    static final int MAX_RADIUS = 32;
+    /**
+     * 窗口半径相对于图像短边的比例
+     */
+    static final int RADIUS_DIVISOR = 16;
+    /**
+     * 默认的敏感度：越大时阈值越低，判为黑色的像素越少
+     */
+    public static final float DEFAULT_K = 0.2f;
+    /**
+     * 标准差的动态范围
+     */
+    private static final float DYNAMIC_RANGE = 128f;
+
+    private final float k;
+
+    public AdaptiveBinarizer(@NonNull LuminanceSource source) {
+        this(source, DEFAULT_K, null);
+    }
+
+    /**
+     *
+     * @param source 亮度源
+     * @param k 敏感度，一般在0.1 ~ 0.5之间
+     */
+    public AdaptiveBinarizer(@NonNull LuminanceSource source, float k) {
+        this(source, k, null);
+    }
+
+    private AdaptiveBinarizer(@NonNull LuminanceSource source, float k, @Nullable BinarizerBuffers buffers) {
+        super(source, buffers);
+        this.k = k;
+    }
+
+    /**
+     * 根据图像尺寸计算窗口半径
+     * @param width 宽
+     * @param height 高
+     * @return
+     */
+    static int calculateRadius(int width, int height) {
+        return Math.max(MIN_RADIUS, Math.min(MAX_RADIUS, Math.min(width, height) / RADIUS_DIVISOR));
+    }
+
+    @Override
+    public BitArray getBlackRow(int y, BitArray row) throws NotFoundException {
+        return getBlackMatrix().getRow(y, row);
+    }
+
+    @NonNull
+    @Override
+    BitMatrix calculateBlackMatrix(@NonNull BinarizerBuffers buffers) throws NotFoundException {
+        LuminanceSource source = getLuminanceSource();
+        int width = source.getWidth();
+        int height = source.getHeight();
+        byte[] luminances = buffers.readLuminances(source);
+
+        int subWidth = (width + CELL_SIZE - 1) >> CELL_SIZE_POWER;
+        int subHeight = (height + CELL_SIZE - 1) >> CELL_SIZE_POWER;
+
+        //积分图比单元网格多一行一列，第0行和第0列均为0；先将每个单元的亮度和、平方和累加到对应的位置
+        int stride = subWidth + 1;
+        int size = stride * (subHeight + 1);
+        int[] integral = buffers.getIntegral(size);
+        int[] squaredIntegral = buffers.getSquaredIntegral(size);
+        for (int i = 0; i < size; i++) {
+            integral[i] = 0;
+            squaredIntegral[i] = 0;
+        }
+        int fullWidth = width & ~(CELL_SIZE - 1);
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            int index = ((y >> CELL_SIZE_POWER) + 1) * stride + 1;
+            int x = 0;
+            for (; x < fullWidth; x += CELL_SIZE, index++) {
+                int p0 = luminances[offset + x] & 0xFF;
+                int p1 = luminances[offset + x + 1] & 0xFF;
+                int p2 = luminances[offset + x + 2] & 0xFF;
+                int p3 = luminances[offset + x + 3] & 0xFF;
+                integral[index] += p0 + p1 + p2 + p3;
+                squaredIntegral[index] += p0 * p0 + p1 * p1 + p2 * p2 + p3 * p3;
+            }
+            //最右侧不足一个单元的像素
+            for (; x < width; x++) {
+                int pixel = luminances[offset + x] & 0xFF;
+                integral[index] += pixel;
+                squaredIntegral[index] += pixel * pixel;
+            }
+        }
+        //再原地累加为积分图：平方积分图整体会超出int的范围，但窗口内的平方和不会超出，溢出后相减的结果仍然是正确的
+        for (int y = 1; y <= subHeight; y++) {
+            int rowSum = 0;
+            int rowSquaredSum = 0;
+            for (int x = 1, index = y * stride + 1; x <= subWidth; x++, index++) {
+                rowSum += integral[index];
+                rowSquaredSum += squaredIntegral[index];
+                integral[index] = integral[index - stride] + rowSum;
+                squaredIntegral[index] = squaredIntegral[index - stride] + rowSquaredSum;
+            }
+        }
+
+        //每个单元的阈值：以单元为中心的窗口内的均值和标准差
+        int radius = (calculateRadius(width, height) + CELL_SIZE / 2) >> CELL_SIZE_POWER;
+        int[] thresholds = buffers.getBlackPoints(subWidth * subHeight);
+        for (int y = 0; y < subHeight; y++) {
+            int top = Math.max(0, y - radius);
+            int bottom = Math.min(subHeight, y + radius + 1);
+            int windowHeight = Math.min(height, bottom << CELL_SIZE_POWER) - (top << CELL_SIZE_POWER);
+            top *= stride;
+            bottom *= stride;
+            for (int x = 0; x < subWidth; x++) {
+                int left = Math.max(0, x - radius);
+                int right = Math.min(subWidth, x + radius + 1);
+                int windowWidth = Math.min(width, right << CELL_SIZE_POWER) - (left << CELL_SIZE_POWER);
+                float area = windowWidth * windowHeight;
+                float mean = (integral[bottom + right] - integral[top + right] - integral[bottom + left] + integral[top + left]) / area;
+                float variance = (squaredIntegral[bottom + right] - squaredIntegral[top + right] - squaredIntegral[bottom + left] + squaredIntegral[top + left]) / area - mean * mean;
+                float std = variance > 0 ? (float) Math.sqrt(variance) : 0;
+                thresholds[y * subWidth + x] = (int) Math.ceil(mean * (1 + k * (std / DYNAMIC_RANGE - 1)));
+            }
+        }
+
+        //逐个像素查表比较，每32个像素拼成一个字后整行写入
+        BitMatrix matrix = buffers.getMatrix(width, height);
+        BitArray row = buffers.getBitRow(width);
+        int[] bits = row.getBitArray();
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            int index = (y >> CELL_SIZE_POWER) * subWidth;
+            for (int i = 0, x = 0; x < width; i++) {
+                int word = 0;
+                for (int end = Math.min(width, x + 32), bit = 0; x < end; x++, bit++) {
+                    if ((luminances[offset + x] & 0xFF) < thresholds[index + (x >> CELL_SIZE_POWER)]) {
+                        word |= 1 << bit;
+                    }
+                }
+                bits[i] = word;
+            }
+            matrix.setRow(y, row);
+        }
+        return matrix;
+    }
+
+    /**
+     * 解码过程中读取器对图像进行裁剪或旋转时调用，使用独占的缓冲区，不会覆盖当前的输出矩阵
+     */
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+        return new AdaptiveBinarizer(source, k, new BinarizerBuffers());
+    }
+}
@@ -1,13 +1,26 @@
 package com.vincent.qr_scanner.decoder;
 
 import android.graphics.Rect;
+import android.util.Log;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 矩形区域分析器
@@ -17,8 +30,83 @@ import java.util.Map;
 public abstract class AreaRectAnalyzer extends ImageAnalyzer {
 
     DecodeConfig mDecodeConfig;
+    DecodeProfile mDecodeProfile;
     Map<DecodeHintType,?> mHints;
-    boolean isMultiDecode = true;
+    /**
+     * 需要依次尝试的解码策略
+     */
+    List<DecodeStrategy> mStrategies;
+    /**
+     * 是否并行解码
+     */
+    boolean isParallelDecode;
+    /**
+     * 解码策略调度器，只有开启自适应解码策略时才不为空
+     */
+    StrategyScheduler mStrategyScheduler;
+    /**
+     * 是否分级解码
+     */
+    boolean isTieredDecode;
+    private int mThoroughDecodeInterval = DecodeConfig.DEFAULT_THOROUGH_DECODE_INTERVAL;
+    private int mThoroughDecodeFailureThreshold = DecodeConfig.DEFAULT_THOROUGH_DECODE_FAILURE_THRESHOLD;
+    private long mTieredFrameCount;
+    private int mTieredFailureCount;
+    /**
+     * 分级解码时，当前帧快速解码失败后是否进行完整解码，由{@link #onFrame()}每帧决定一次
+     */
+    private boolean isThoroughFrame;
+    /**
+     * 清晰度评估器，只有开启模糊帧过滤时才不为空
+     */
+    SharpnessEstimator mSharpnessEstimator;
+    /**
+     * 帧差门控，只有开启帧差门控时才不为空
+     */
+    FrameDifferenceGate mFrameDifferenceGate;
+    /**
+     * 对比度增强器，只有开启对比度增强时才不为空
+     */
+    ContrastEnhancer mContrastEnhancer;
+    /**
+     * 时域降噪器，只有开启多帧时域降噪时才不为空
+     */
+    TemporalDenoiser mTemporalDenoiser;
+    /**
+     * 候选区域检测器，只有开启候选区域预检测时才不为空
+     */
+    CandidateDetector mCandidateDetector;
+    /**
+     * 开启候选区域预检测时，当前帧是否完整识别分析区域，由{@link #onFrame()}每帧决定一次
+     */
+    private boolean isFullDecodeFrame;
+    /**
+     * 格式学习器，只有开启格式学习时才不为空
+     */
+    FormatLearner mFormatLearner;
+    /**
+     * 金字塔解码时先尝试的缩小倍数，小于2时表示不使用金字塔解码
+     */
+    int mPyramidScaleFactor;
+    /**
+     * 识别区域跟踪器，只有开启识别区域跟踪时才不为空
+     */
+    RoiTracker mRoiTracker;
+    /**
+     * 每隔多少帧扫描一次全区域或象限，小于1时表示不扫描
+     */
+    private int mSweepInterval;
+    private DecodeConfig.SweepMode mSweepMode = DecodeConfig.SweepMode.FULL;
+    private long mSweepFrameCount;
+    private int mSweepCount;
+    /**
+     * 外部指定的识别区域（如：扫码框映射到分析图像中的区域），优先于{@link DecodeConfig#getAnalyzeAreaRect()}
+     */
+    private volatile Rect mAnalyzeAreaRect;
+    /**
+     * 当前帧的取消标志，只有{@link CompositeAnalyzer}在解码线程中分析时才不为空
+     */
+    private volatile AtomicBoolean mFrameCancelled;
     private float mAreaRectRatio = DecodeConfig.DEFAULT_AREA_RECT_RATIO;
     private int mAreaRectHorizontalOffset = 0;
     private int mAreaRectVerticalOffset = 0;
@@ -26,13 +114,49 @@ public abstract class AreaRectAnalyzer extends ImageAnalyzer {
     public AreaRectAnalyzer(@Nullable DecodeConfig config){
         this.mDecodeConfig = config;
         if(config != null){
-            mHints = config.getHints();
-            isMultiDecode = config.isMultiDecode();
+            mDecodeProfile = config.getDecodeProfile();
+            isParallelDecode = config.isParallelDecode();
+            isTieredDecode = config.isTieredDecode();
+            mThoroughDecodeInterval = Math.max(1,config.getThoroughDecodeInterval());
+            mThoroughDecodeFailureThreshold = Math.max(1,config.getThoroughDecodeFailureThreshold());
             mAreaRectRatio = config.getAreaRectRatio();
             mAreaRectHorizontalOffset = config.getAreaRectHorizontalOffset();
             mAreaRectVerticalOffset = config.getAreaRectVerticalOffset();
         }else{
-            mHints = DecodeFormatManager.DEFAULT_HINTS;
+            mDecodeProfile = DecodeFormatManager.DEFAULT_PROFILE;
+        }
+        mHints = mDecodeProfile.getHints();
+        mStrategies = DecodeStrategy.createStrategies(config);
+        if(config != null && config.isAdaptiveStrategy()){
+            mStrategyScheduler = new StrategyScheduler(mStrategies);
+        }
+        if(config != null && config.isSharpnessFilter()){
+            mSharpnessEstimator = new SharpnessEstimator(config.getSharpnessThresholdRatio());
+        }
+        if(config != null && config.isPyramidDecode()){
+            mPyramidScaleFactor = config.getPyramidScaleFactor();
+        }
+        if(config != null){
+            mSweepInterval = config.getSweepInterval();
+            mSweepMode = config.getSweepMode();
+        }
+        if(config != null && config.isRoiTracking()){
+            mRoiTracker = new RoiTracker();
+        }
+        if(config != null && config.isFrameDifferenceGate()){
+            mFrameDifferenceGate = new FrameDifferenceGate(config.getFrameDifferenceThreshold(),config.getForceDecodeInterval());
+        }
+        if(config != null && config.isContrastEnhance()){
+            mContrastEnhancer = new ContrastEnhancer(config.getContrastEnhanceMeanThreshold(),config.getContrastEnhanceContrastThreshold());
+        }
+        if(config != null && config.isTemporalDenoise()){
+            mTemporalDenoiser = new TemporalDenoiser(config.getTemporalDenoiseFrameCount(),config.getTemporalDenoiseMotionThreshold());
+        }
+        if(config != null && config.isCandidateDetect()){
+            mCandidateDetector = new CandidateDetector(config.getCandidateFullDecodeInterval());
+        }
+        if(config != null && config.isFormatLearning()){
+            mFormatLearner = createFormatLearner(mDecodeProfile);
         }
 
     }
@@ -40,26 +164,544 @@ public abstract class AreaRectAnalyzer extends ImageAnalyzer {
     @Nullable
     @Override
     public Result analyze(byte[] data, int width, int height) {
+        return analyze(new PlanarYUVLuminanceSource(data,width,height,0,0,width,height,false));
+    }
+
+    @Nullable
+    @Override
+    public Result analyze(@NonNull LuminanceSource source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        Rect rect = mRoiTracker != null ? mRoiTracker.getTrackingRect(width,height) : null;
+        if(rect == null){
+            rect = calculateScheduledAreaRect(width,height);
+        }
+        Result result = analyze(source,rect.left,rect.top,rect.width(),rect.height());
+        if(mRoiTracker != null && !isFrameCancelled()){
+            mRoiTracker.update(result,rect,width,height);
+        }
+        return result;
+    }
+
+    /**
+     * 分析亮度源，可在其它线程中取消：取消后再读取数据时会直接结束，当前帧的结果和统计不会更新到门控、调度器、格式学习器和识别区域跟踪器中
+     * @param source
+     * @param isCancelled 为{@code true}时表示当前帧已取消
+     * @return
+     */
+    @Nullable
+    Result analyze(@NonNull LuminanceSource source,@NonNull AtomicBoolean isCancelled){
+        mFrameCancelled = isCancelled;
+        try{
+            return analyze(new CancellableLuminanceSource(source,isCancelled));
+        }finally {
+            mFrameCancelled = null;
+        }
+    }
+
+    /**
+     * 当前帧是否已取消
+     * @return
+     */
+    boolean isFrameCancelled(){
+        AtomicBoolean isCancelled = mFrameCancelled;
+        return isCancelled != null && isCancelled.get();
+    }
+
+    /**
+     * 计算需要分析识别的区域，计算出的区域会限制在图像范围内
+     * @param width 图像宽
+     * @param height 图像高
+     * @return
+     */
+    @NonNull
+    Rect calculateAnalyzeAreaRect(int width, int height){
+        Rect rect = null;
         if(mDecodeConfig != null){
             if(mDecodeConfig.isFullAreaScan()){
                 //mDecodeConfig为空或者支持全区域扫码识别时，直接使用全区域进行扫码识别
-                return analyze(data,width,height,0,0,width,height);
+                return new Rect(0,0,width,height);
+            }
+            //如果分析区域不为空，则使用指定的区域进行扫码识别
+            rect = mDecodeConfig.getAnalyzeAreaRect();
+        }
+        Rect analyzeAreaRect = mAnalyzeAreaRect;
+        if(analyzeAreaRect != null){
+            rect = analyzeAreaRect;
+        }
+
+        if(rect == null){
+            //如果分析区域为空，则通过识别区域比例和相关的偏移量计算出最终的区域进行扫码识别
+            int size = (int)(Math.min(width,height) * mAreaRectRatio);
+            int left = (width-size)/2 + mAreaRectHorizontalOffset;
+            int top = (height-size)/2 + mAreaRectVerticalOffset;
+            rect = new Rect(left,top,left + size,top + size);
+        }
+
+        int left = Math.max(0,Math.min(rect.left,width - 1));
+        int top = Math.max(0,Math.min(rect.top,height - 1));
+        int right = Math.max(left + 1,Math.min(rect.right,width));
+        int bottom = Math.max(top + 1,Math.min(rect.bottom,height));
+        return new Rect(left,top,right,bottom);
+    }
+
+    /**
+     * 替换解码配置文件，只在创建后、开始分析前调用（如：{@link CompositeAnalyzer}为每个格式族指定各自的格式）；
+     * 开启格式学习时，会基于新的配置文件重新学习
+     * @param profile
+     */
+    void setDecodeProfile(@NonNull DecodeProfile profile){
+        mDecodeProfile = profile;
+        mHints = profile.getHints();
+        if(mFormatLearner != null){
+            mFormatLearner = createFormatLearner(profile);
+        }
+    }
+
+    @NonNull
+    private FormatLearner createFormatLearner(@NonNull DecodeProfile profile){
+        return new FormatLearner(profile,mDecodeConfig.getFormatLearningThreshold(),mDecodeConfig.getFormatProbeInterval(),mDecodeConfig.getFormatMissThreshold());
+    }
+
+    /**
+     * 开启格式学习时，在解码前切换到格式学习器为当前帧选择的解码配置文件，解码完成后需调用{@link FormatLearner#onDecoded(Result)}或{@link FormatLearner#onDecoded(java.util.List)}
+     */
+    void applyLearnedProfile(){
+        if(mFormatLearner != null){
+            DecodeProfile profile = mFormatLearner.nextProfile();
+            mDecodeProfile = profile;
+            mHints = profile.getHints();
+        }
+    }
+
+    /**
+     * 设置需要分析识别的区域，优先于{@link DecodeConfig#setAnalyzeAreaRect(Rect)}，{@link DecodeConfig#isFullAreaScan()}为{@code true}时无效；
+     * 可在分析过程中随时调用，一般由{@link com.vincent.qr_scanner.camera.CameraScan}将扫码框映射为分析图像中的区域后设置
+     * @param rect 分析图像中的区域，为{@code null}时恢复使用{@link DecodeConfig}中的配置
+     */
+    public void setAnalyzeAreaRect(@Nullable Rect rect){
+        mAnalyzeAreaRect = rect != null ? new Rect(rect) : null;
+    }
+
+    /**
+     * 按扫描计划计算需要分析识别的区域：大部分帧只识别{@link #calculateAnalyzeAreaRect(int, int)}计算出的中心区域，
+     * 每隔{@link DecodeConfig#getSweepInterval()}帧扫描一次全区域，或依次扫描四个象限
+     * @param width 图像宽
+     * @param height 图像高
+     * @return
+     */
+    @NonNull
+    Rect calculateScheduledAreaRect(int width, int height){
+        if(mSweepInterval < 1 || ++mSweepFrameCount % mSweepInterval != 0){
+            return calculateAnalyzeAreaRect(width,height);
+        }
+        if(mSweepMode == DecodeConfig.SweepMode.QUADRANT){
+            //象限之间保留一定的重叠，避免中线附近的码被分割
+            int quadrantWidth = Math.min(width,(int)(width * DecodeConfig.SWEEP_QUADRANT_RATIO));
+            int quadrantHeight = Math.min(height,(int)(height * DecodeConfig.SWEEP_QUADRANT_RATIO));
+            int quadrant = mSweepCount++ % 4;
+            int left = (quadrant & 1) == 0 ? 0 : width - quadrantWidth;
+            int top = (quadrant & 2) == 0 ? 0 : height - quadrantHeight;
+            return new Rect(left,top,left + quadrantWidth,top + quadrantHeight);
+        }
+        return new Rect(0,0,width,height);
+    }
+
+    /**
+     * 裁剪出需要分析识别的区域，不会复制图像数据
+     * @param source
+     * @param left
+     * @param top
+     * @param width
+     * @param height
+     * @return
+     */
+    @NonNull
+    static LuminanceSource crop(@NonNull LuminanceSource source,int left,int top,int width,int height){
+        if(left == 0 && top == 0 && width == source.getWidth() && height == source.getHeight()){
+            return source;
+        }
+        if(source.isCropSupported()){
+            return source.crop(left,top,width,height);
+        }
+        return new CropLuminanceSource(source,left,top,width,height);
+    }
+
+    @Nullable
+    public Result analyze(byte[] data, int dataWidth, int dataHeight,int left,int top,int width,int height){
+        return analyze(new PlanarYUVLuminanceSource(data,dataWidth,dataHeight,0,0,dataWidth,dataHeight,false),left,top,width,height);
+    }
+
+    /**
+     * 分析亮度源中指定的区域
+     * @param source 整帧的亮度源
+     * @param left
+     * @param top
+     * @param width
+     * @param height
+     * @return
+     */
+    @Nullable
+    public Result analyze(@NonNull LuminanceSource source,int left,int top,int width,int height){
+        Result rawResult = null;
+        try {
+            long start = System.currentTimeMillis();
+            LuminanceSource areaSource = crop(source,left,top,width,height);
+            if(!shouldDecode(areaSource)){
+                return null;
+            }
+            onFrame();
+            applyLearnedProfile();
+            rawResult = decodeArea(enhance(areaSource));
+            if(mTemporalDenoiser != null && !isFrameCancelled()){
+                rawResult = decodeDenoised(areaSource,rawResult);
+            }
+            if(isFrameCancelled()){
+                //读取到的可能是已释放或已被覆盖的数据，不能算作一次解码
+                return null;
+            }
+            onDecoded(rawResult != null);
+            if(mFormatLearner != null){
+                mFormatLearner.onDecoded(rawResult);
+            }
+            if(rawResult != null){
+                long end = System.currentTimeMillis();
+                Log.d(getClass().getSimpleName(), "Found barcode in " + (end - start) + " ms");
+            }
+        } catch (Exception e) {
+
+        }
+        return rawResult;
+    }
+
+    /**
+     * 判断分析区域是否需要解码，需要解码时，解码完成后需调用{@link #onDecoded(boolean)}
+     * @param source 分析区域
+     * @return
+     */
+    boolean shouldDecode(@NonNull LuminanceSource source){
+        if(mFrameDifferenceGate != null && !mFrameDifferenceGate.shouldDecode(source)){
+            //与上一次解码失败的帧几乎相同，直接跳过
+            return false;
+        }
+        //模糊帧，直接跳过，不进行二值化和解码
+        return mSharpnessEstimator == null || mSharpnessEstimator.accept(source);
+    }
+
+    /**
+     * 开始解码新的一帧，通过门控后每帧只调用一次：一帧中可能会进行多轮解码，按帧计算的间隔在这里统一推进
+     */
+    void onFrame(){
+        if(mStrategyScheduler != null){
+            mStrategyScheduler.onFrame();
+        }
+        if(mCandidateDetector != null){
+            //时域降噪后的再次识别与当前帧使用相同的决定
+            isFullDecodeFrame = mCandidateDetector.isFullDecodeDue();
+        }
+        if(isTieredDecode){
+            //每隔一定帧数，或者算上当前帧已连续失败一定帧数时，才进行完整解码
+            isThoroughFrame = ++mTieredFrameCount % mThoroughDecodeInterval == 0 || mTieredFailureCount + 1 >= mThoroughDecodeFailureThreshold;
+        }
+    }
+
+    /**
+     * 开启对比度增强时，按需增强分析区域的对比度，增强后的坐标与分析区域一致
+     * @param source 分析区域
+     * @return
+     */
+    @NonNull
+    LuminanceSource enhance(@NonNull LuminanceSource source){
+        if(mContrastEnhancer != null){
+            return mContrastEnhancer.enhance(source);
+        }
+        return source;
+    }
+
+    /**
+     * 单帧解码失败时累加分析区域，累加的帧数足够时解码降噪后的分析区域；解码成功时重新开始累加
+     * @param source 分析区域
+     * @param result 单帧解码的结果
+     * @return
+     */
+    @Nullable
+    private Result decodeDenoised(@NonNull LuminanceSource source,@Nullable Result result){
+        if(result == null){
+            LuminanceSource denoised = mTemporalDenoiser.accumulate(source);
+            if(denoised != null){
+                result = decodeArea(enhance(denoised));
+            }
+        }
+        if(result != null){
+            mTemporalDenoiser.reset();
+        }
+        return result;
+    }
+
+    /**
+     * 识别分析区域，开启候选区域预检测时，只依次识别检测到的候选区域，没有候选区域时直接返回；每隔一定帧数仍会完整识别一次
+     * @param source 分析区域
+     * @return 坐标为分析区域中的坐标
+     */
+    @Nullable
+    Result decodeArea(@NonNull LuminanceSource source){
+        if(mCandidateDetector == null || isFullDecodeFrame){
+            return decodeInternal(source);
+        }
+        for(Rect rect : mCandidateDetector.detect(source)){
+            Result result = decodeInternal(crop(source,rect.left,rect.top,rect.width(),rect.height()));
+            if(result != null){
+                return TransformLuminanceSource.translate(result,rect.left,rect.top);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 分析区域解码完成
+     * @param success 是否解码成功
+     */
+    void onDecoded(boolean success){
+        if(mFrameDifferenceGate != null){
+            mFrameDifferenceGate.onDecoded(success);
+        }
+        if(isTieredDecode){
+            //进行过完整解码后重新累计连续失败的帧数
+            mTieredFailureCount = success || isThoroughFrame ? 0 : mTieredFailureCount + 1;
+        }
+    }
+
+    /**
+     * 识别分析区域，开启金字塔解码时，先识别缩小后的分析区域，失败后才识别原始分辨率的分析区域
+     * @param source 分析区域
+     * @return
+     */
+    @Nullable
+    Result decodeInternal(@NonNull LuminanceSource source){
+        if(mPyramidScaleFactor > 1){
+            LuminanceSource coarse = DownsampledLuminanceSource.create(source,mPyramidScaleFactor);
+            if(coarse != null){
+                //缩小后的分析区域只进行一轮解码，与原始分辨率的第一轮解码保持一致
+                Result result = decodeInternal(coarse,!isTieredDecode);
+                if(result != null){
+                    return TransformLuminanceSource.toSourceResult(result,coarse,source);
+                }
+            }
+        }
+        return decodeTiered(source);
+    }
+
+    /**
+     * 识别分析区域，开启分级解码时，先进行一次快速解码，只有在需要时才进行完整解码
+     * @param source 分析区域
+     * @return
+     */
+    @Nullable
+    Result decodeTiered(@NonNull LuminanceSource source){
+        if(!isTieredDecode){
+            return decodeInternal(source,true);
+        }
+        //快速解码：不使用TRY_HARDER，扫描的行数更少
+        Result result = decodeInternal(source,false);
+        if(result == null && isThoroughFrame){
+            result = decodeInternal(source,true);
+        }
+        return result;
+    }
+
+    /**
+     * 尝试所有的解码策略
+     * @param source 分析区域
+     * @param tryHarder 是否使用{@link DecodeHintType#TRY_HARDER}进行完整解码
+     * @return
+     */
+    @Nullable
+    Result decodeInternal(@NonNull LuminanceSource source, boolean tryHarder){
+        List<DecodeStrategy> strategies = mStrategyScheduler != null ? mStrategyScheduler.nextStrategies() : mStrategies;
+        //已经在解码线程中（如：由CompositeAnalyzer调度）时不再并行，避免占满线程池导致死锁
+        if(isParallelDecode && strategies.size() > 1 && !DecodeExecutor.isDecodeThread()){
+            return decodeParallel(source,strategies,tryHarder);
+        }
+        return decodeInternal(source,strategies,tryHarder);
+    }
+
+    /**
+     * 依次尝试解码策略，直到解码成功
+     * @param source 分析区域
+     * @param strategies
+     * @param tryHarder
+     * @return
+     */
+    @Nullable
+    Result decodeInternal(@NonNull LuminanceSource source, @NonNull List<DecodeStrategy> strategies, boolean tryHarder){
+        for(DecodeStrategy strategy : strategies){
+            Result result = decodeInternal(source,strategy,tryHarder);
+            if(result != null){
+                return result;
             }
+        }
+        return null;
+    }
 
-            Rect rect = mDecodeConfig.getAnalyzeAreaRect();
-            if(rect != null){//如果分析区域不为空，则使用指定的区域进行扫码识别
-                return analyze(data,width,height,rect.left,rect.top,rect.width(),rect.height());
+    /**
+     * 同时在{@link DecodeExecutor}中尝试所有的解码策略，其中第一个策略在当前线程执行，
+     * 任意一个策略解码成功后，会取消其它还未开始执行的策略并立即返回；
+     * 已经开始执行的策略通过{@link CancellableLuminanceSource}读取分析区域，返回后再读取数据时会直接结束，其结果也不会再记录到{@link StrategyScheduler}
+     * @param source 分析区域
+     * @param strategies
+     * @param tryHarder
+     * @return
+     */
+    @Nullable
+    Result decodeParallel(@NonNull LuminanceSource source, @NonNull List<DecodeStrategy> strategies, boolean tryHarder){
+        CompletionService<Result> completionService = new ExecutorCompletionService<>(DecodeExecutor.get());
+        AtomicBoolean isDone = new AtomicBoolean();
+        List<Future<Result>> futures = new ArrayList<>(strategies.size() - 1);
+        for(int i = 1; i < strategies.size(); i++){
+            DecodeStrategy strategy = strategies.get(i);
+            futures.add(completionService.submit(() -> isDone.get() ? null : decodeInternal(new CancellableLuminanceSource(source,isDone),strategy,tryHarder,isDone)));
+        }
+        try{
+            Result result = decodeInternal(source,strategies.get(0),tryHarder);
+            for(int i = 0; result == null && i < futures.size(); i++){
+                try{
+                    result = completionService.take().get();
+                }catch (ExecutionException e){
+
+                }
             }
+            return result;
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return null;
+        }finally {
+            isDone.set(true);
+            for(Future<Result> future : futures){
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 使用指定的解码策略进行解码，识别结果的坐标点会映射回分析区域的坐标系
+     * @param source 分析区域
+     * @param strategy
+     * @param tryHarder
+     * @return
+     */
+    @Nullable
+    Result decodeInternal(@NonNull LuminanceSource source, @NonNull DecodeStrategy strategy, boolean tryHarder){
+        return decodeInternal(source,strategy,tryHarder,null);
+    }
+
+    /**
+     * 使用指定的解码策略进行解码
+     * @param source 分析区域
+     * @param strategy
+     * @param tryHarder
+     * @param isCancelled 并行解码时的取消标志，已取消时丢弃结果，不记录到{@link StrategyScheduler}
+     * @return
+     */
+    @Nullable
+    private Result decodeInternal(@NonNull LuminanceSource source, @NonNull DecodeStrategy strategy, boolean tryHarder, @Nullable AtomicBoolean isCancelled){
+        long start = System.nanoTime();
+        Result result = null;
+        try{
+            LuminanceSource view = strategy.transform(source);
+            result = decode(new BinaryBitmap(strategy.createBinarizer(view)),tryHarder);
+            result = TransformLuminanceSource.toSourceResult(result,view,source);
+        }catch (Exception e){
+
+        }
+        if((isCancelled != null && isCancelled.get()) || isFrameCancelled()){
+            //其它策略已经解码成功，读取失败或者读取到的是已被覆盖的数据，不能算作这个策略的一次尝试
+            return null;
+        }
+        if(mStrategyScheduler != null){
+            mStrategyScheduler.record(strategy,result != null,System.nanoTime() - start);
         }
+        return result;
+    }
+
+    /**
+     * 获取解码策略调度器，可通过{@link StrategyScheduler#getStatistics()}查看每个解码策略的统计信息
+     * @return 只有通过{@link DecodeConfig#setAdaptiveStrategy(boolean)}开启自适应解码策略时才不为空
+     */
+    @Nullable
+    public StrategyScheduler getStrategyScheduler(){
+        return mStrategyScheduler;
+    }
 
-        //如果分析区域为空，则通过识别区域比例和相关的偏移量计算出最终的区域进行扫码识别
-        int size = (int)(Math.min(width,height) * mAreaRectRatio);
-        int left = (width-size)/2 + mAreaRectHorizontalOffset;
-        int top = (height-size)/2 + mAreaRectVerticalOffset;
+    /**
+     * 获取清晰度评估器，可通过{@link SharpnessEstimator#setOnSharpnessListener(SharpnessEstimator.OnSharpnessListener)}查看每帧的清晰度评分
+     * @return 只有通过{@link DecodeConfig#setSharpnessFilter(boolean)}开启模糊帧过滤时才不为空
+     */
+    @Nullable
+    public SharpnessEstimator getSharpnessEstimator(){
+        return mSharpnessEstimator;
+    }
+
+    /**
+     * 获取识别区域跟踪器
+     * @return 只有通过{@link DecodeConfig#setRoiTracking(boolean)}开启识别区域跟踪时才不为空
+     */
+    @Nullable
+    public RoiTracker getRoiTracker(){
+        return mRoiTracker;
+    }
+
+    /**
+     * 获取帧差门控，可通过{@link FrameDifferenceGate#getLastDifference()}查看最近一帧的差异
+     * @return 只有通过{@link DecodeConfig#setFrameDifferenceGate(boolean)}开启帧差门控时才不为空
+     */
+    @Nullable
+    public FrameDifferenceGate getFrameDifferenceGate(){
+        return mFrameDifferenceGate;
+    }
+
+    /**
+     * 获取对比度增强器
+     * @return 只有通过{@link DecodeConfig#setContrastEnhance(boolean)}开启对比度增强时才不为空
+     */
+    @Nullable
+    public ContrastEnhancer getContrastEnhancer(){
+        return mContrastEnhancer;
+    }
 
-        return analyze(data,width,height,left,top,size,size);
+    /**
+     * 获取时域降噪器
+     * @return 只有通过{@link DecodeConfig#setTemporalDenoise(boolean)}开启多帧时域降噪时才不为空
+     */
+    @Nullable
+    public TemporalDenoiser getTemporalDenoiser(){
+        return mTemporalDenoiser;
+    }
 
+    /**
+     * 获取候选区域检测器，可通过{@link CandidateDetector#getLastCandidateCount()}查看最近一帧的候选区域个数
+     * @return 只有通过{@link DecodeConfig#setCandidateDetect(boolean)}开启候选区域预检测时才不为空
+     */
+    @Nullable
+    public CandidateDetector getCandidateDetector(){
+        return mCandidateDetector;
     }
 
-    abstract Result analyze(byte[] data, int dataWidth, int dataHeight,int left,int top,int width,int height);
+    /**
+     * 获取格式学习器，可通过{@link FormatLearner#getSeenFormats()}查看本次会话中识别到过的格式
+     * @return 只有通过{@link DecodeConfig#setFormatLearning(boolean)}开启格式学习时才不为空
+     */
+    @Nullable
+    public FormatLearner getFormatLearner(){
+        return mFormatLearner;
+    }
+
+    /**
+     * 解码二值化后的图像，并行解码时会在多个线程中同时调用，实现时需保证线程安全
+     * @param bitmap
+     * @param tryHarder 为{@code true}时使用{@link DecodeProfile#getHints()}，否则使用{@link DecodeProfile#getFastHints()}
+     * @return
+     * @throws ReaderException
+     */
+    @Nullable
+    abstract Result decode(@NonNull BinaryBitmap bitmap, boolean tryHarder) throws ReaderException;
 }
@@ -0,0 +1,277 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.util.Arrays;
+
+/**
+ * 二值化缓冲区：{@link ReusableGlobalHistogramBinarizer}和{@link ReusableHybridBinarizer}的工作数组和输出矩阵，
+ * 每个线程持有一份，同一线程中连续分析尺寸相同的帧时不再重复分配
+ *
+ * 输出矩阵会在下一次二值化时被覆盖，所以同一线程中一次只能使用一个二值化结果；需要长期持有二值化结果时可以创建独占的缓冲区
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/11 15:30
+ */
+final class BinarizerBuffers {
+
+    static final int LUMINANCE_BITS = 5;
+    static final int LUMINANCE_SHIFT = 8 - LUMINANCE_BITS;
+    static final int LUMINANCE_BUCKETS = 1 << LUMINANCE_BITS;
+
+    private static final ThreadLocal<BinarizerBuffers> BUFFERS = new ThreadLocal<BinarizerBuffers>() {
+        @Override
+        protected BinarizerBuffers initialValue() {
+            return new BinarizerBuffers();
+        }
+    };
+
+    final int[] buckets = new int[LUMINANCE_BUCKETS];
+
+    private byte[] row = new byte[0];
+    private byte[] scratchRow = new byte[0];
+    private byte[] luminances = new byte[0];
+    private int[] blackPoints = new int[0];
+    private int[] integral = new int[0];
+    private int[] squaredIntegral = new int[0];
+    private byte[] downsampled = new byte[0];
+    private int[] downsampleSums = new int[0];
+    /**
+     * 旋转90或270度的视图在当前线程中缓存的矩阵，最多缓存两个视图：解码策略对竖屏帧再旋转一次时，内外两层各占一个
+     */
+    private final byte[][] rotated = {new byte[0], new byte[0]};
+    private final Object[] rotatedOwners = new Object[2];
+    private int lastRotated;
+    private BitArray bitRow;
+    private BitMatrix matrix;
+
+    BinarizerBuffers() {
+    }
+
+    /**
+     * 获取当前线程的缓冲区
+     * @return
+     */
+    @NonNull
+    static BinarizerBuffers get() {
+        return BUFFERS.get();
+    }
+
+    /**
+     * 获取清零后的直方图
+     * @return
+     */
+    @NonNull
+    int[] clearBuckets() {
+        for (int i = 0; i < LUMINANCE_BUCKETS; i++) {
+            buckets[i] = 0;
+        }
+        return buckets;
+    }
+
+    /**
+     * 获取至少能容纳一行亮度数据的数组
+     * @param width 行宽
+     * @return
+     */
+    @NonNull
+    byte[] getRow(int width) {
+        if (row.length < width) {
+            row = new byte[width];
+        }
+        return row;
+    }
+
+    /**
+     * 获取至少能容纳一行亮度数据的临时数组，供变换亮度源读取被变换的行时使用，与{@link #getRow(int)}相互独立；
+     * 内容只在读取的那一次调用中有效
+     * @param width 行宽
+     * @return
+     */
+    @NonNull
+    byte[] getScratchRow(int width) {
+        if (scratchRow.length < width) {
+            scratchRow = new byte[width];
+        }
+        return scratchRow;
+    }
+
+    /**
+     * 读取整个亮度矩阵，除了{@link DownsampledLuminanceSource}、旋转90或270度的{@link RotateLuminanceSource}这类已经缓存了矩阵的亮度源外，均逐行写入复用的数组
+     * @param source 亮度源
+     * @return 前{@code width * height}个元素为亮度数据，长度可能更大
+     */
+    @NonNull
+    byte[] readLuminances(@NonNull LuminanceSource source) {
+        if (source instanceof DownsampledLuminanceSource) {
+            return ((DownsampledLuminanceSource) source).getLuminances();
+        }
+        if (source instanceof RotateLuminanceSource && ((RotateLuminanceSource) source).getDegrees() != 180) {
+            return ((RotateLuminanceSource) source).getRotatedMatrix(this);
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int size = width * height;
+        if (luminances.length < size) {
+            luminances = new byte[size];
+        }
+        byte[] row = getRow(width);
+        for (int y = 0, offset = 0; y < height; y++, offset += width) {
+            row = source.getRow(y, row);
+            System.arraycopy(row, 0, luminances, offset, width);
+        }
+        this.row = row;
+        return luminances;
+    }
+
+    /**
+     * 获取至少能容纳{@code size}个块阈值的数组
+     * @param size 块数
+     * @return
+     */
+    @NonNull
+    int[] getBlackPoints(int size) {
+        if (blackPoints.length < size) {
+            blackPoints = new int[size];
+        }
+        return blackPoints;
+    }
+
+    /**
+     * 获取至少能容纳{@code size}个元素的积分图数组
+     * @param size 元素个数
+     * @return
+     */
+    @NonNull
+    int[] getIntegral(int size) {
+        if (integral.length < size) {
+            integral = new int[size];
+        }
+        return integral;
+    }
+
+    /**
+     * 获取至少能容纳{@code size}个元素的平方积分图数组
+     * @param size 元素个数
+     * @return
+     */
+    @NonNull
+    int[] getSquaredIntegral(int size) {
+        if (squaredIntegral.length < size) {
+            squaredIntegral = new int[size];
+        }
+        return squaredIntegral;
+    }
+
+    /**
+     * 获取至少能容纳{@code size}个像素的缩小矩阵，供{@link DownsampledLuminanceSource#create(LuminanceSource, int)}使用，
+     * 会在当前线程下一次创建缩小亮度源时被覆盖
+     * @param size 像素数
+     * @return
+     */
+    @NonNull
+    byte[] getDownsampled(int size) {
+        if (downsampled.length < size) {
+            downsampled = new byte[size];
+        }
+        return downsampled;
+    }
+
+    /**
+     * 获取清零后的缩小时每列的累加数组
+     * @param width 缩小后的宽
+     * @return
+     */
+    @NonNull
+    int[] clearDownsampleSums(int width) {
+        if (downsampleSums.length < width) {
+            downsampleSums = new int[width];
+        } else {
+            Arrays.fill(downsampleSums, 0, width, 0);
+        }
+        return downsampleSums;
+    }
+
+    /**
+     * 获取{@code owner}在当前线程中缓存的旋转后的矩阵
+     * @param owner 旋转的视图
+     * @return 没有缓存时为{@code null}
+     */
+    @Nullable
+    byte[] getRotated(@NonNull Object owner) {
+        for (int i = 0; i < rotatedOwners.length; i++) {
+            if (rotatedOwners[i] == owner) {
+                lastRotated = i;
+                return rotated[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 为{@code owner}分配缓存旋转后的矩阵的数组，替换较早使用的缓存
+     * @param owner 旋转的视图
+     * @param size 像素数
+     * @return
+     */
+    @NonNull
+    byte[] claimRotated(@NonNull Object owner, int size) {
+        int i = 1 - lastRotated;
+        if (rotated[i].length < size) {
+            rotated[i] = new byte[size];
+        }
+        rotatedOwners[i] = owner;
+        lastRotated = i;
+        return rotated[i];
+    }
+
+    /**
+     * 丢弃{@code owner}的缓存
+     * @param owner 旋转的视图
+     */
+    void releaseRotated(@NonNull Object owner) {
+        for (int i = 0; i < rotatedOwners.length; i++) {
+            if (rotatedOwners[i] == owner) {
+                rotatedOwners[i] = null;
+            }
+        }
+    }
+
+    /**
+     * 获取宽度一致的位数组，用于整行写入输出矩阵
+     * @param width 行宽
+     * @return
+     */
+    @NonNull
+    BitArray getBitRow(int width) {
+        BitArray row = bitRow;
+        if (row == null || row.getSize() != width) {
+            row = new BitArray(width);
+            bitRow = row;
+        }
+        return row;
+    }
+
+    /**
+     * 获取清零后的输出矩阵，尺寸不变时复用上一次的矩阵
+     * @param width 宽
+     * @param height 高
+     * @return
+     */
+    @NonNull
+    BitMatrix getMatrix(int width, int height) {
+        BitMatrix matrix = this.matrix;
+        if (matrix != null && matrix.getWidth() == width && matrix.getHeight() == height) {
+            matrix.clear();
+        } else {
+            matrix = new BitMatrix(width, height);
+            this.matrix = matrix;
+        }
+        return matrix;
+    }
+}
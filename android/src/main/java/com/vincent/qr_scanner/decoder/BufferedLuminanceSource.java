@@ -0,0 +1,53 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.ResultPoint;
+
+/**
+ * 缓冲亮度源：数据来自预处理（如：{@link ContrastEnhancer}、{@link TemporalDenoiser}）复用的缓冲区，坐标与{@link #getDelegate()}一致
+ *
+ * 缓冲区会在下一帧预处理时被覆盖，只能在当前帧的解码过程中使用
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/13 15:00
+ */
+final class BufferedLuminanceSource extends TransformLuminanceSource {
+
+    private final byte[] matrix;
+
+    /**
+     *
+     * @param delegate 被预处理的亮度源
+     * @param matrix 预处理后的数据，前{@code width * height}个元素有效
+     */
+    BufferedLuminanceSource(@NonNull LuminanceSource delegate, @NonNull byte[] matrix) {
+        super(delegate, delegate.getWidth(), delegate.getHeight());
+        this.matrix = matrix;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        System.arraycopy(matrix, y * width, row, 0, width);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        if (matrix.length == getWidth() * getHeight()) {
+            return matrix;
+        }
+        return super.getMatrix();
+    }
+
+    @NonNull
+    @Override
+    public ResultPoint toDelegatePoint(@NonNull ResultPoint point) {
+        return point;
+    }
+}
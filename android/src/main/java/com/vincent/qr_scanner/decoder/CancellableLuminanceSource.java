@@ -0,0 +1,72 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.ResultPoint;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 可取消的亮度源：并行解码或{@link CompositeAnalyzer}同时分析多个格式族时，交给{@link DecodeExecutor}中的任务使用，
+ * 任意一个任务识别成功后，还在执行的任务再读取数据时会抛出{@link CancellationException}并尽快结束，
+ * 不会再读取已经释放的图像数据，或已经被下一帧覆盖的复用缓冲区
+ *
+ * 坐标与{@link #getDelegate()}一致，裁剪后仍可取消
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/16 10:20
+ */
+final class CancellableLuminanceSource extends TransformLuminanceSource {
+
+    private final AtomicBoolean isCancelled;
+
+    /**
+     *
+     * @param delegate 被读取的亮度源
+     * @param isCancelled 为{@code true}时不再允许读取
+     */
+    CancellableLuminanceSource(@NonNull LuminanceSource delegate, @NonNull AtomicBoolean isCancelled) {
+        super(delegate, delegate.getWidth(), delegate.getHeight());
+        this.isCancelled = isCancelled;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        checkCancelled();
+        return delegate.getRow(y, row);
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        checkCancelled();
+        return delegate.getMatrix();
+    }
+
+    @Override
+    public boolean isCropSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        if (delegate.isCropSupported()) {
+            //优先使用被读取的亮度源自己的裁剪，如：旋转亮度源只会读取裁剪区域内的数据
+            return new CancellableLuminanceSource(delegate.crop(left, top, width, height), isCancelled);
+        }
+        return super.crop(left, top, width, height);
+    }
+
+    private void checkCancelled() {
+        if (isCancelled.get()) {
+            throw new CancellationException("Decode task has been cancelled.");
+        }
+    }
+
+    @NonNull
+    @Override
+    public ResultPoint toDelegatePoint(@NonNull ResultPoint point) {
+        return point;
+    }
+}
@@ -0,0 +1,507 @@
+package com.vincent.qr_scanner.decoder;
+
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 候选区域检测器：在完整解码之前，先在缩小{@link #SCALE}倍的分析区域中快速查找可能包含码的区域，
+ * 没有候选区域的帧（最常见的情况）直接跳过解码，有候选区域时也只需解码候选区域
+ *
+ * 每隔{@link #SCALE}行、{@link #SCALE}列采样一个像素，按{@link #CELL_SIZE}x{@link #CELL_SIZE}的单元以周围单元最大、最小亮度的平均值作为阈值二值化，之后查找两类特征：
+ * 1. 二维码的定位图形：行中连续的黑白黑白黑游程比例为1:1:3:1:1，且在中心列上纵向也满足该比例，相互靠近的定位图形归为同一个码；
+ * 2. 一维码的条空：单元中一个方向的黑白跳变很多，而另一个方向几乎没有，相互连通的单元归为同一个码（同时支持水平和垂直的条码）
+ *
+ * 采样后每个模块至少需要1个像素，即原图中的模块不小于{@link #SCALE}个像素；为了兼顾更小的码以及没有上述特征的码（如：Data Matrix、Aztec），
+ * 每隔{@link #getFullDecodeInterval()}帧仍会完整解码一次
+ *
+ * 主要在分析线程中调用，非线程安全
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/14 10:10
+ */
+public class CandidateDetector {
+
+    /**
+     * 默认完整解码的间隔帧数
+     */
+    public static final int DEFAULT_FULL_DECODE_INTERVAL = 10;
+    /**
+     * 采样的间隔
+     */
+    static final int SCALE = 4;
+    /**
+     * 二值化和统计跳变的单元边长（采样后的像素）
+     */
+    static final int CELL_SIZE = 8;
+    /**
+     * 单元周围的亮度范围小于此值时认为是纯色区域
+     */
+    static final int MIN_CONTRAST = 40;
+    /**
+     * 条码单元主方向上的最少跳变次数
+     */
+    static final int MIN_BAR_EDGES = 12;
+    /**
+     * 条码单元主方向的跳变次数至少是另一个方向的多少倍
+     */
+    static final int BAR_EDGE_RATIO = 3;
+    /**
+     * 同一个码的定位图形之间的最大距离（模块数）
+     */
+    static final int MAX_FINDER_DISTANCE = 60;
+    /**
+     * 最多检测的定位图形个数
+     */
+    static final int MAX_FINDER_PATTERNS = 32;
+    /**
+     * 最多返回的候选区域个数
+     */
+    static final int MAX_CANDIDATES = 4;
+
+    private final int fullDecodeInterval;
+    private int frameCount;
+
+    private byte[] row = new byte[0];
+    private byte[] pixels = new byte[0];
+    private byte[] bits = new byte[0];
+    private int[] cellMin = new int[0];
+    private int[] cellMax = new int[0];
+    private int[] horizontalEdges = new int[0];
+    private int[] verticalEdges = new int[0];
+    private final int[] runs = new int[5];
+    private final int[] verticalRuns = new int[5];
+    private byte[] cellStates = new byte[0];
+    private int[] cellStack = new int[0];
+    private final List<float[]> finderPatterns = new ArrayList<>();
+    private int lastCandidateCount;
+
+    public CandidateDetector() {
+        this(DEFAULT_FULL_DECODE_INTERVAL);
+    }
+
+    /**
+     *
+     * @param fullDecodeInterval 完整解码的间隔帧数，小于1时表示只解码候选区域
+     */
+    public CandidateDetector(int fullDecodeInterval) {
+        this.fullDecodeInterval = fullDecodeInterval;
+    }
+
+    /**
+     * 当前帧是否需要完整解码，每帧只调用一次（同一帧中的多次识别使用相同的结果），需要完整解码时不必再调用{@link #detect(LuminanceSource)}
+     * @return
+     */
+    public boolean isFullDecodeDue() {
+        if (fullDecodeInterval > 0 && ++frameCount >= fullDecodeInterval) {
+            frameCount = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 检测分析区域中的候选区域
+     * @param source 分析区域
+     * @return 分析区域中的候选区域，按面积从大到小排列，没有候选区域时为空列表；分析区域太小无法检测时返回整个分析区域
+     */
+    @NonNull
+    public List<Rect> detect(@NonNull LuminanceSource source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int sampleWidth = width / SCALE;
+        int sampleHeight = height / SCALE;
+        if (sampleWidth < CELL_SIZE * 2 || sampleHeight < CELL_SIZE * 2) {
+            lastCandidateCount = 1;
+            return Collections.singletonList(new Rect(0, 0, width, height));
+        }
+        int cellWidth = (sampleWidth + CELL_SIZE - 1) / CELL_SIZE;
+        int cellHeight = (sampleHeight + CELL_SIZE - 1) / CELL_SIZE;
+        sample(source, sampleWidth, sampleHeight);
+        binarize(sampleWidth, sampleHeight, cellWidth, cellHeight);
+
+        List<Rect> candidates = new ArrayList<>();
+        findFinderPatterns(sampleWidth, sampleHeight);
+        addFinderCandidates(candidates);
+        countEdges(sampleWidth, sampleHeight, cellWidth, cellHeight);
+        addBarCandidates(candidates, cellWidth, cellHeight);
+
+        //映射回分析区域的坐标，合并相互重叠的区域
+        List<Rect> rects = new ArrayList<>(candidates.size());
+        for (Rect candidate : candidates) {
+            Rect rect = new Rect(candidate.left * SCALE, candidate.top * SCALE, candidate.right * SCALE, candidate.bottom * SCALE);
+            if (rect.intersect(0, 0, width, height)) {
+                rects.add(rect);
+            }
+        }
+        List<Rect> merged = merge(rects);
+        Collections.sort(merged, (a, b) -> b.width() * b.height() - a.width() * a.height());
+        if (merged.size() > MAX_CANDIDATES) {
+            merged = new ArrayList<>(merged.subList(0, MAX_CANDIDATES));
+        }
+        lastCandidateCount = merged.size();
+        return merged;
+    }
+
+    /**
+     * 每隔{@link #SCALE}行、{@link #SCALE}列采样一个像素
+     */
+    private void sample(LuminanceSource source, int sampleWidth, int sampleHeight) {
+        int size = sampleWidth * sampleHeight;
+        if (pixels.length < size) {
+            pixels = new byte[size];
+            bits = new byte[size];
+        }
+        if (row.length < source.getWidth()) {
+            row = new byte[source.getWidth()];
+        }
+        int offset = SCALE / 2;
+        for (int y = 0, index = 0; y < sampleHeight; y++) {
+            byte[] luminances = source.getRow(y * SCALE + offset, row);
+            for (int x = 0, i = offset; x < sampleWidth; x++, i += SCALE) {
+                pixels[index++] = luminances[i];
+            }
+        }
+    }
+
+    /**
+     * 以周围3x3个单元最大、最小亮度的平均值作为阈值进行二值化，1为黑色；对比度太低的单元全部为白色
+     */
+    private void binarize(int sampleWidth, int sampleHeight, int cellWidth, int cellHeight) {
+        int cells = cellWidth * cellHeight;
+        if (cellMin.length < cells) {
+            cellMin = new int[cells];
+            cellMax = new int[cells];
+            horizontalEdges = new int[cells];
+            verticalEdges = new int[cells];
+        }
+        for (int cy = 0; cy < cellHeight; cy++) {
+            for (int cx = 0; cx < cellWidth; cx++) {
+                int min = 0xFF;
+                int max = 0;
+                for (int y = cy * CELL_SIZE, endY = Math.min(y + CELL_SIZE, sampleHeight); y < endY; y++) {
+                    for (int x = cx * CELL_SIZE, endX = Math.min(x + CELL_SIZE, sampleWidth), i = y * sampleWidth + x; x < endX; x++, i++) {
+                        int pixel = pixels[i] & 0xFF;
+                        min = Math.min(min, pixel);
+                        max = Math.max(max, pixel);
+                    }
+                }
+                cellMin[cy * cellWidth + cx] = min;
+                cellMax[cy * cellWidth + cx] = max;
+            }
+        }
+        for (int cy = 0; cy < cellHeight; cy++) {
+            for (int cx = 0; cx < cellWidth; cx++) {
+                int min = 0xFF;
+                int max = 0;
+                for (int ny = Math.max(0, cy - 1), endY = Math.min(cellHeight, cy + 2); ny < endY; ny++) {
+                    for (int nx = Math.max(0, cx - 1), endX = Math.min(cellWidth, cx + 2); nx < endX; nx++) {
+                        min = Math.min(min, cellMin[ny * cellWidth + nx]);
+                        max = Math.max(max, cellMax[ny * cellWidth + nx]);
+                    }
+                }
+                //对比度太低时阈值为0，全部为白色
+                int threshold = max - min >= MIN_CONTRAST ? (min + max) / 2 : 0;
+                for (int y = cy * CELL_SIZE, endY = Math.min(y + CELL_SIZE, sampleHeight); y < endY; y++) {
+                    for (int x = cx * CELL_SIZE, endX = Math.min(x + CELL_SIZE, sampleWidth), i = y * sampleWidth + x; x < endX; x++, i++) {
+                        bits[i] = (byte) ((pixels[i] & 0xFF) < threshold ? 1 : 0);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 逐行查找黑白黑白黑游程比例为1:1:3:1:1的位置，再在中心列上纵向验证
+     */
+    private void findFinderPatterns(int sampleWidth, int sampleHeight) {
+        finderPatterns.clear();
+        int[] runs = this.runs;
+        for (int y = 0; y < sampleHeight && finderPatterns.size() < MAX_FINDER_PATTERNS; y++) {
+            int offset = y * sampleWidth;
+            //runs中依次为最近的5个游程，第一个游程为黑色时才检查
+            int count = 0;
+            int x = 0;
+            while (x < sampleWidth) {
+                int color = bits[offset + x];
+                int start = x;
+                while (x < sampleWidth && bits[offset + x] == color) {
+                    x++;
+                }
+                if (count < 5) {
+                    runs[count++] = x - start;
+                } else {
+                    System.arraycopy(runs, 1, runs, 0, 4);
+                    runs[4] = x - start;
+                }
+                //最后一个游程为黑色，且共有5个游程时，第一个游程也为黑色
+                if (color == 1 && count == 5 && isFinderRatio(runs)) {
+                    int centerX = x - runs[4] - runs[3] - runs[2] / 2 - 1;
+                    float moduleSize = (runs[0] + runs[1] + runs[2] + runs[3] + runs[4]) / 7f;
+                    if (crossCheckVertical(centerX, y, runs[2], sampleWidth, sampleHeight)) {
+                        addFinderPattern(centerX, y, moduleSize);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isFinderRatio(int[] runs) {
+        int total = runs[0] + runs[1] + runs[2] + runs[3] + runs[4];
+        if (total < 7) {
+            return false;
+        }
+        float moduleSize = total / 7f;
+        //采样后模块只有1~2个像素，误差至少需要允许1个像素
+        float maxVariance = Math.max(1f, moduleSize / 2);
+        return Math.abs(moduleSize - runs[0]) <= maxVariance
+                && Math.abs(moduleSize - runs[1]) <= maxVariance
+                && Math.abs(3 * moduleSize - runs[2]) <= Math.max(1f, moduleSize * 1.5f)
+                && Math.abs(moduleSize - runs[3]) <= maxVariance
+                && Math.abs(moduleSize - runs[4]) <= maxVariance;
+    }
+
+    /**
+     * 在中心列上从中心向上、向下统计游程，验证纵向也满足1:1:3:1:1
+     */
+    private boolean crossCheckVertical(int centerX, int centerY, int centerRun, int sampleWidth, int sampleHeight) {
+        //横向的游程还在使用，纵向使用单独的数组
+        int[] runs = verticalRuns;
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = 0;
+        }
+        int y = centerY;
+        for (int state = 2; state >= 0; state--) {
+            int color = state == 1 ? 0 : 1;
+            while (y >= 0 && bits[y * sampleWidth + centerX] == color) {
+                runs[state]++;
+                y--;
+            }
+            if (runs[state] == 0) {
+                return false;
+            }
+        }
+        y = centerY + 1;
+        for (int state = 2; state <= 4; state++) {
+            int color = state == 3 ? 0 : 1;
+            while (y < sampleHeight && bits[y * sampleWidth + centerX] == color) {
+                runs[state]++;
+                y++;
+            }
+            if (runs[state] == 0 && state != 2) {
+                return false;
+            }
+        }
+        //纵向的中心游程与横向的相差太大时，不是正方形的定位图形
+        return runs[2] <= centerRun * 2 + 1 && centerRun <= runs[2] * 2 + 1 && isFinderRatio(runs);
+    }
+
+    /**
+     * 记录定位图形，与已有的定位图形很近时认为是同一个
+     */
+    private void addFinderPattern(int x, int y, float moduleSize) {
+        for (float[] pattern : finderPatterns) {
+            if (Math.abs(pattern[0] - x) <= pattern[2] * 3 && Math.abs(pattern[1] - y) <= pattern[2] * 3) {
+                return;
+            }
+        }
+        finderPatterns.add(new float[]{x, y, moduleSize});
+    }
+
+    /**
+     * 相互靠近的定位图形归为同一个码，以定位图形中心的外接矩形向四周扩展；只有一个定位图形时，码可能在任意方向，扩展得更多
+     */
+    private void addFinderCandidates(List<Rect> candidates) {
+        int size = finderPatterns.size();
+        int[] groups = new int[size];
+        for (int i = 0; i < size; i++) {
+            groups[i] = i;
+        }
+        for (int i = 0; i < size; i++) {
+            float[] a = finderPatterns.get(i);
+            for (int j = i + 1; j < size; j++) {
+                float[] b = finderPatterns.get(j);
+                float maxDistance = MAX_FINDER_DISTANCE * (a[2] + b[2]) / 2;
+                if (Math.abs(a[0] - b[0]) <= maxDistance && Math.abs(a[1] - b[1]) <= maxDistance) {
+                    int from = groups[j];
+                    int to = groups[i];
+                    for (int k = 0; k < size; k++) {
+                        if (groups[k] == from) {
+                            groups[k] = to;
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (groups[i] != i) {
+                continue;
+            }
+            float left = Float.MAX_VALUE;
+            float top = Float.MAX_VALUE;
+            float right = -Float.MAX_VALUE;
+            float bottom = -Float.MAX_VALUE;
+            float moduleSize = 0;
+            int count = 0;
+            for (int k = 0; k < size; k++) {
+                if (groups[k] == i) {
+                    float[] pattern = finderPatterns.get(k);
+                    left = Math.min(left, pattern[0]);
+                    top = Math.min(top, pattern[1]);
+                    right = Math.max(right, pattern[0]);
+                    bottom = Math.max(bottom, pattern[1]);
+                    moduleSize += pattern[2];
+                    count++;
+                }
+            }
+            moduleSize /= count;
+            float margin = moduleSize * (count > 1 ? 8 : 25);
+            candidates.add(new Rect((int) (left - margin), (int) (top - margin), (int) Math.ceil(right + margin), (int) Math.ceil(bottom + margin)));
+        }
+    }
+
+    /**
+     * 统计每个单元内水平和垂直方向的黑白跳变次数
+     */
+    private void countEdges(int sampleWidth, int sampleHeight, int cellWidth, int cellHeight) {
+        int cells = cellWidth * cellHeight;
+        for (int i = 0; i < cells; i++) {
+            horizontalEdges[i] = 0;
+            verticalEdges[i] = 0;
+        }
+        for (int y = 0; y < sampleHeight; y++) {
+            int offset = y * sampleWidth;
+            int cellOffset = y / CELL_SIZE * cellWidth;
+            for (int x = 1; x < sampleWidth; x++) {
+                int bit = bits[offset + x];
+                int cell = cellOffset + x / CELL_SIZE;
+                horizontalEdges[cell] += bit ^ bits[offset + x - 1];
+                if (y > 0) {
+                    verticalEdges[cell] += bit ^ bits[offset + x - sampleWidth];
+                }
+            }
+        }
+    }
+
+    /**
+     * 一个方向的跳变很多而另一个方向几乎没有的单元为条码单元，相互连通的条码单元归为同一个码，外接矩形再向四周扩展一个单元
+     */
+    private void addBarCandidates(List<Rect> candidates, int cellWidth, int cellHeight) {
+        int cells = cellWidth * cellHeight;
+        //0：不是条码单元，1：未访问的条码单元，2：已访问
+        if (cellStates.length < cells) {
+            cellStates = new byte[cells];
+            cellStack = new int[cells];
+        }
+        byte[] states = cellStates;
+        for (int i = 0; i < cells; i++) {
+            int major = Math.max(horizontalEdges[i], verticalEdges[i]);
+            int minor = Math.min(horizontalEdges[i], verticalEdges[i]);
+            states[i] = (byte) (major >= MIN_BAR_EDGES && major >= minor * BAR_EDGE_RATIO ? 1 : 0);
+        }
+        int[] stack = cellStack;
+        for (int i = 0; i < cells; i++) {
+            if (states[i] != 1) {
+                continue;
+            }
+            int left = Integer.MAX_VALUE;
+            int top = Integer.MAX_VALUE;
+            int right = -1;
+            int bottom = -1;
+            int count = 0;
+            int size = 0;
+            stack[size++] = i;
+            states[i] = 2;
+            while (size > 0) {
+                int cell = stack[--size];
+                int cx = cell % cellWidth;
+                int cy = cell / cellWidth;
+                left = Math.min(left, cx);
+                top = Math.min(top, cy);
+                right = Math.max(right, cx);
+                bottom = Math.max(bottom, cy);
+                count++;
+                if (cx > 0 && states[cell - 1] == 1) {
+                    states[cell - 1] = 2;
+                    stack[size++] = cell - 1;
+                }
+                if (cx < cellWidth - 1 && states[cell + 1] == 1) {
+                    states[cell + 1] = 2;
+                    stack[size++] = cell + 1;
+                }
+                if (cy > 0 && states[cell - cellWidth] == 1) {
+                    states[cell - cellWidth] = 2;
+                    stack[size++] = cell - cellWidth;
+                }
+                if (cy < cellHeight - 1 && states[cell + cellWidth] == 1) {
+                    states[cell + cellWidth] = 2;
+                    stack[size++] = cell + cellWidth;
+                }
+            }
+            //单个孤立的单元一般是纹理或文字
+            if (count >= 2) {
+                candidates.add(new Rect((left - 1) * CELL_SIZE, (top - 1) * CELL_SIZE, (right + 2) * CELL_SIZE, (bottom + 2) * CELL_SIZE));
+            }
+        }
+    }
+
+    /**
+     * 合并相互重叠的区域
+     */
+    private static List<Rect> merge(List<Rect> rects) {
+        List<Rect> merged = new ArrayList<>(rects);
+        boolean isMerged = true;
+        while (isMerged) {
+            isMerged = false;
+            for (int i = 0; i < merged.size() && !isMerged; i++) {
+                for (int j = i + 1; j < merged.size(); j++) {
+                    if (Rect.intersects(merged.get(i), merged.get(j))) {
+                        merged.get(i).union(merged.get(j));
+                        merged.remove(j);
+                        isMerged = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * 完整解码的间隔帧数
+     * @return
+     */
+    public int getFullDecodeInterval() {
+        return fullDecodeInterval;
+    }
+
+    /**
+     * 最近一次检测到的候选区域个数
+     * @return
+     */
+    public int getLastCandidateCount() {
+        return lastCandidateCount;
+    }
+
+    /**
+     * 重置状态
+     */
+    public void reset() {
+        frameCount = 0;
+        lastCandidateCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "CandidateDetector{" +
+                "fullDecodeInterval=" + fullDecodeInterval +
+                ", lastCandidateCount=" + lastCandidateCount +
+                '}';
+    }
+}
@@ -5,15 +5,17 @@ import android.graphics.BitmapFactory;
 
 import androidx.annotation.NonNull;
 
+import com.google.zxing.Binarizer;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.LuminanceSource;
-import com.google.zxing.MultiFormatReader;
 import com.google.zxing.RGBLuminanceSource;
 import com.google.zxing.Result;
 import com.google.zxing.common.GlobalHistogramBinarizer;
 import com.google.zxing.common.HybridBinarizer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,6 +28,17 @@ public class CodeReader {
     public static final int DEFAULT_REQ_WIDTH = 480;
     public static final int DEFAULT_REQ_HEIGHT = 640;
 
+    /**
+     * 整页扫描时，默认压缩后的图片大小，需保证图片中较小的码压缩后依然可以识别
+     */
+    public static final int DEFAULT_SHEET_REQ_WIDTH = 2048;
+    public static final int DEFAULT_SHEET_REQ_HEIGHT = 2048;
+
+    /**
+     * 像素数不小于此值时，采用{@link ParallelHybridBinarizer}并行二值化
+     */
+    static final int PARALLEL_BINARIZER_MIN_PIXELS = 1024 * 1024;
+
     /**
      * 解析二维码图片
      * @param bitmapPath
@@ -113,22 +126,19 @@ public class CodeReader {
      */
     public static Result parseCodeResult(Bitmap bitmap, Map<DecodeHintType,Object> hints){
         Result result = null;
-        MultiFormatReader reader = new MultiFormatReader();
+        DecodeProfile profile = DecodeFormatManager.getDecodeProfile(hints);
         try{
-            reader.setHints(hints);
             RGBLuminanceSource source = getRGBLuminanceSource(bitmap);
-            result = decodeInternal(reader,source);
+            result = decodeInternal(profile,source);
             if(result == null){
-                result = decodeInternal(reader,source.invert());
+                result = decodeInternal(profile,source.invert());
             }
             if(result == null && source.isRotateSupported()){
-                result = decodeInternal(reader,source.rotateCounterClockwise());
+                result = decodeInternal(profile,source.rotateCounterClockwise());
             }
 
         }catch (Exception e){
             e.printStackTrace();
-        }finally {
-            reader.reset();
         }
 
         return result;
@@ -145,39 +155,132 @@ public class CodeReader {
      */
     public static Result parseCodeResult(String bitmapPath,int reqWidth,int reqHeight, Map<DecodeHintType,Object> hints){
         Result result = null;
-        MultiFormatReader reader = new MultiFormatReader();
+        DecodeProfile profile = DecodeFormatManager.getDecodeProfile(hints);
         try{
-            reader.setHints(hints);
             RGBLuminanceSource source = getRGBLuminanceSource(compressBitmap(bitmapPath,reqWidth,reqHeight));
-            result = decodeInternal(reader,source);
+            result = decodeInternal(profile,source);
             if(result == null){
-                result = decodeInternal(reader,source.invert());
+                result = decodeInternal(profile,source.invert());
             }
             if(result == null && source.isRotateSupported()){
-                result = decodeInternal(reader,source.rotateCounterClockwise());
+                result = decodeInternal(profile,source.rotateCounterClockwise());
             }
 
         }catch (Exception e){
             e.printStackTrace();
-        }finally {
-            reader.reset();
         }
 
         return result;
     }
 
-    private static Result decodeInternal(MultiFormatReader reader, LuminanceSource source){
+    /**
+     * 按原图解析一维码/二维码图片，不压缩图片，适用于图片中的码较小，压缩后无法识别的场景；
+     * 较大的图片会采用{@link ParallelHybridBinarizer}并行二值化，请在子线程中调用
+     * @param bitmapPath
+     * @param hints 解析编码类型
+     * @return
+     */
+    public static Result parseOriginalCodeResult(String bitmapPath, Map<DecodeHintType,Object> hints){
+        return parseCodeResult(bitmapPath,Integer.MAX_VALUE,Integer.MAX_VALUE,hints);
+    }
+
+    /**
+     * 多角度解析一维码图片：沿水平、垂直以及每隔{@link OneDimensionalAnalyzer#DEFAULT_SCAN_ANGLE_STEP}度的扫描线识别，
+     * 倾斜放置的条码（如：包裹面单）不需要旋转图片也能识别，只识别一维码
+     * @param bitmapPath
+     * @param hints 解析编码类型，只使用其中的一维码格式
+     * @return
+     * @see {@link OneDimensionalAnalyzer}
+     */
+    public static Result parseOneDimensionalCodeResult(String bitmapPath, Map<DecodeHintType,Object> hints){
+        try{
+            return parseOneDimensionalCodeResult(compressBitmap(bitmapPath,DEFAULT_REQ_WIDTH,DEFAULT_REQ_HEIGHT),hints);
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * 多角度解析一维码图片：沿水平、垂直以及每隔{@link OneDimensionalAnalyzer#DEFAULT_SCAN_ANGLE_STEP}度的扫描线识别，
+     * 倾斜放置的条码（如：包裹面单）不需要旋转图片也能识别，只识别一维码
+     * @param bitmap
+     * @param hints 解析编码类型，只使用其中的一维码格式
+     * @return
+     * @see {@link OneDimensionalAnalyzer}
+     */
+    public static Result parseOneDimensionalCodeResult(Bitmap bitmap, Map<DecodeHintType,Object> hints){
+        Result result = null;
+        try{
+            DecodeConfig config = new DecodeConfig()
+                    .setHints(hints)
+                    .setFullAreaScan(true)
+                    .setSupportVerticalCode(true)
+                    .setAngledScanLine(true);
+            result = new OneDimensionalAnalyzer(config).analyze(getRGBLuminanceSource(bitmap));
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+        return result;
+    }
+
+    /**
+     * 整页扫描：识别图片中的所有一维码/二维码，适用于一张图片中有多个码的场景（如：贴满标签的单据）
+     * @param bitmapPath
+     * @param hints 解析编码类型
+     * @return 所有识别到的码，坐标点为压缩后的图片中的坐标，没有识别到时为空列表
+     */
+    public static List<Result> parseSheetCodeResults(String bitmapPath, Map<DecodeHintType,Object> hints){
+        return parseSheetCodeResults(bitmapPath,DEFAULT_SHEET_REQ_WIDTH,DEFAULT_SHEET_REQ_HEIGHT,hints);
+    }
+
+    /**
+     * 整页扫描：识别图片中的所有一维码/二维码，适用于一张图片中有多个码的场景（如：贴满标签的单据）
+     * @param bitmapPath
+     * @param reqWidth
+     * @param reqHeight
+     * @param hints 解析编码类型
+     * @return 所有识别到的码，坐标点为压缩后的图片中的坐标，没有识别到时为空列表
+     */
+    public static List<Result> parseSheetCodeResults(String bitmapPath,int reqWidth,int reqHeight, Map<DecodeHintType,Object> hints){
+        try{
+            return parseSheetCodeResults(compressBitmap(bitmapPath,reqWidth,reqHeight),hints);
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * 整页扫描：将图片切分成相互重叠的分块并行识别，返回图片中所有的一维码/二维码，
+     * 会阻塞当前线程直到识别完成，请在子线程中调用
+     * @param bitmap
+     * @param hints 解析编码类型
+     * @return 所有识别到的码，没有识别到时为空列表
+     * @see {@link SheetScanner}
+     */
+    public static List<Result> parseSheetCodeResults(Bitmap bitmap, Map<DecodeHintType,Object> hints){
+        try{
+            SheetScanner scanner = new SheetScanner(DecodeFormatManager.getDecodeProfile(hints));
+            return scanner.scan(getRGBLuminanceSource(bitmap));
+        }catch (Exception e){
+            e.printStackTrace();
+        }
+        return new ArrayList<>();
+    }
+
+    private static Result decodeInternal(DecodeProfile profile, LuminanceSource source){
         Result result = null;
         try{
             try{
-                //采用HybridBinarizer解析
-                result = reader.decodeWithState(new BinaryBitmap(new HybridBinarizer(source)));
+                //采用HybridBinarizer解析，图片较大时并行二值化
+                result = profile.decode(new BinaryBitmap(createHybridBinarizer(source)));
             }catch (Exception e){
 
             }
             if(result == null){
                 //如果没有解析成功，再采用GlobalHistogramBinarizer解析一次
-                result = reader.decodeWithState(new BinaryBitmap(new GlobalHistogramBinarizer(source)));
+                result = profile.decode(new BinaryBitmap(new GlobalHistogramBinarizer(source)));
             }
         }catch (Exception e){
             e.printStackTrace();
@@ -185,6 +288,13 @@ public class CodeReader {
         return result;
     }
 
+    private static Binarizer createHybridBinarizer(LuminanceSource source){
+        if(source.getWidth() * source.getHeight() >= PARALLEL_BINARIZER_MIN_PIXELS){
+            return new ParallelHybridBinarizer(source);
+        }
+        return new HybridBinarizer(source);
+    }
+
     /**
      * 压缩图片
      * @param path
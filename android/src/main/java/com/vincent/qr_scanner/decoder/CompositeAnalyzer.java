@@ -0,0 +1,297 @@
+package com.vincent.qr_scanner.decoder;
+
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.Result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 组合分析器：按{@link FormatFamily}将需要识别的格式拆分成几个格式族，每个格式族使用各自的{@link MultiCodeAnalyzer}，
+ * 同时在{@link DecodeExecutor}中分析同一个亮度源，适用于同时识别多种码（如：二维码和商品条码）的场景，
+ * 每个格式族只需运行自己的读取器，不会因为其它格式族识别失败而等待
+ *
+ * {@link #analyze(LuminanceSource)}：第一个格式族在当前线程分析，任意一个格式族识别成功后立即返回，不等待其它格式族，
+ * 还在分析的格式族会被取消，不再读取亮度源；
+ * {@link #analyzeMultiple(LuminanceSource)}：等待所有格式族分析完成后，合并去重所有的结果
+ *
+ * 上一帧中还在分析的格式族会跳过当前帧，所以每个格式族的分析器同一时间只会在一个线程中使用；
+ * 每个格式族使用相同的{@link DecodeConfig}，帧差门控、识别区域跟踪等状态由各个格式族分别维护
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/15 10:00
+ */
+public class CompositeAnalyzer extends ImageAnalyzer {
+
+    /**
+     * 格式族
+     */
+    public enum FormatFamily {
+        /**
+         * 矩阵式二维码：{@link BarcodeFormat#QR_CODE}、{@link BarcodeFormat#AZTEC}、{@link BarcodeFormat#DATA_MATRIX}、{@link BarcodeFormat#MAXICODE}
+         */
+        MATRIX(BarcodeFormat.QR_CODE, BarcodeFormat.AZTEC, BarcodeFormat.DATA_MATRIX, BarcodeFormat.MAXICODE),
+        /**
+         * 堆叠式二维码：{@link BarcodeFormat#PDF_417}
+         */
+        STACKED(BarcodeFormat.PDF_417),
+        /**
+         * 一维码：零售和物流中常用的条码
+         */
+        LINEAR(BarcodeFormat.CODABAR, BarcodeFormat.CODE_39, BarcodeFormat.CODE_93, BarcodeFormat.CODE_128,
+                BarcodeFormat.EAN_8, BarcodeFormat.EAN_13, BarcodeFormat.ITF, BarcodeFormat.RSS_14,
+                BarcodeFormat.RSS_EXPANDED, BarcodeFormat.UPC_A, BarcodeFormat.UPC_E, BarcodeFormat.UPC_EAN_EXTENSION);
+
+        private final List<BarcodeFormat> formats;
+
+        FormatFamily(BarcodeFormat... formats) {
+            this.formats = Collections.unmodifiableList(Arrays.asList(formats));
+        }
+
+        /**
+         * 格式族中的格式
+         * @return
+         */
+        @NonNull
+        public List<BarcodeFormat> getFormats() {
+            return formats;
+        }
+    }
+
+    private final List<Member> mMembers = new ArrayList<>();
+
+    public CompositeAnalyzer(){
+        this((DecodeConfig)null);
+    }
+
+    public CompositeAnalyzer(@Nullable Map<DecodeHintType,Object> hints){
+        this(new DecodeConfig().setHints(hints));
+    }
+
+    public CompositeAnalyzer(@NonNull DecodeProfile profile){
+        this(new DecodeConfig().setDecodeProfile(profile));
+    }
+
+    public CompositeAnalyzer(@Nullable DecodeConfig config) {
+        DecodeProfile profile = config != null ? config.getDecodeProfile() : DecodeFormatManager.DEFAULT_PROFILE;
+        for(FormatFamily family : FormatFamily.values()){
+            DecodeProfile subset = profile.subset(family.getFormats());
+            if(subset != null){
+                MultiCodeAnalyzer analyzer = new MultiCodeAnalyzer(config);
+                analyzer.setDecodeProfile(subset);
+                mMembers.add(new Member(family,analyzer));
+            }
+        }
+        if(mMembers.isEmpty()){
+            //不包含任何已知格式族时，与MultiCodeAnalyzer一致
+            mMembers.add(new Member(null,new MultiCodeAnalyzer(config)));
+        }
+    }
+
+    @Nullable
+    @Override
+    public Result analyze(byte[] data, int width, int height) {
+        return analyze(new PlanarYUVLuminanceSource(data,width,height,0,0,width,height,false));
+    }
+
+    @Nullable
+    @Override
+    public Result analyze(@NonNull LuminanceSource source) {
+        if(mMembers.size() == 1 || DecodeExecutor.isDecodeThread()){
+            for(Member member : mMembers){
+                Result result = member.analyze(source);
+                if(result != null){
+                    return result;
+                }
+            }
+            return null;
+        }
+        CompletionService<Result> completionService = new ExecutorCompletionService<>(DecodeExecutor.get());
+        AtomicBoolean isDone = new AtomicBoolean();
+        List<Future<Result>> futures = new ArrayList<>(mMembers.size() - 1);
+        for(int i = 1; i < mMembers.size(); i++){
+            Member member = mMembers.get(i);
+            futures.add(completionService.submit(() -> isDone.get() ? null : member.analyze(source,isDone)));
+        }
+        try{
+            Result result = mMembers.get(0).analyze(source);
+            for(int i = 0; result == null && i < futures.size(); i++){
+                try{
+                    result = completionService.take().get();
+                }catch (ExecutionException e){
+
+                }
+            }
+            return result;
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return null;
+        }finally {
+            isDone.set(true);
+            for(Future<Result> future : futures){
+                future.cancel(false);
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public Result[] analyzeMultiple(@NonNull LuminanceSource source) {
+        List<Result> results = new ArrayList<>();
+        if(mMembers.size() == 1 || DecodeExecutor.isDecodeThread()){
+            for(Member member : mMembers){
+                addAll(results,member.analyzeMultiple(source));
+            }
+        }else{
+            List<Future<Result[]>> futures = new ArrayList<>(mMembers.size() - 1);
+            for(int i = 1; i < mMembers.size(); i++){
+                Member member = mMembers.get(i);
+                futures.add(DecodeExecutor.get().submit(() -> member.analyzeMultiple(source)));
+            }
+            addAll(results,mMembers.get(0).analyzeMultiple(source));
+            try{
+                for(Future<Result[]> future : futures){
+                    try{
+                        addAll(results,future.get());
+                    }catch (ExecutionException e){
+
+                    }
+                }
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                for(Future<Result[]> future : futures){
+                    future.cancel(false);
+                }
+            }
+        }
+        if(results.isEmpty()){
+            return null;
+        }
+        List<Result> list = ResultDeduplicator.deduplicate(results);
+        return list.toArray(new Result[0]);
+    }
+
+    private static void addAll(@NonNull List<Result> list,@Nullable Result[] results){
+        if(results != null){
+            list.addAll(Arrays.asList(results));
+        }
+    }
+
+    /**
+     * 设置需要分析识别的区域，会同时设置给所有格式族的分析器
+     * @param rect
+     * @see AreaRectAnalyzer#setAnalyzeAreaRect(Rect)
+     */
+    public void setAnalyzeAreaRect(@Nullable Rect rect){
+        for(Member member : mMembers){
+            member.analyzer.setAnalyzeAreaRect(rect);
+        }
+    }
+
+    /**
+     * 需要识别的格式族
+     * @return
+     */
+    @NonNull
+    public List<FormatFamily> getFormatFamilies(){
+        List<FormatFamily> families = new ArrayList<>(mMembers.size());
+        for(Member member : mMembers){
+            if(member.family != null){
+                families.add(member.family);
+            }
+        }
+        return families;
+    }
+
+    /**
+     * 获取格式族的分析器，可用于查看各个格式族的门控、调度器等状态
+     * @param family
+     * @return 不需要识别该格式族时为空
+     */
+    @Nullable
+    public AreaRectAnalyzer getAnalyzer(@NonNull FormatFamily family){
+        for(Member member : mMembers){
+            if(member.family == family){
+                return member.analyzer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 格式族及其分析器，分析器同一时间只允许在一个线程中使用
+     */
+    private static final class Member {
+        final FormatFamily family;
+        final AreaRectAnalyzer analyzer;
+        private final AtomicBoolean isBusy = new AtomicBoolean();
+
+        Member(@Nullable FormatFamily family, @NonNull AreaRectAnalyzer analyzer) {
+            this.family = family;
+            this.analyzer = analyzer;
+        }
+
+        @Nullable
+        Result analyze(@NonNull LuminanceSource source) {
+            //上一帧还在分析时跳过当前帧
+            if(!isBusy.compareAndSet(false,true)){
+                return null;
+            }
+            try{
+                return analyzer.analyze(source);
+            }catch (Exception e){
+                //亮度源已释放等情况
+                return null;
+            }finally {
+                isBusy.set(false);
+            }
+        }
+
+        /**
+         * 在解码线程中分析，其它格式族识别成功后取消，不再读取亮度源，也不会更新这个格式族的状态
+         */
+        @Nullable
+        Result analyze(@NonNull LuminanceSource source, @NonNull AtomicBoolean isCancelled) {
+            if(!isBusy.compareAndSet(false,true)){
+                return null;
+            }
+            try{
+                return analyzer.analyze(source,isCancelled);
+            }catch (Exception e){
+                return null;
+            }finally {
+                isBusy.set(false);
+            }
+        }
+
+        @Nullable
+        Result[] analyzeMultiple(@NonNull LuminanceSource source) {
+            if(!isBusy.compareAndSet(false,true)){
+                return null;
+            }
+            try{
+                return analyzer.analyzeMultiple(source);
+            }catch (Exception e){
+                return null;
+            }finally {
+                isBusy.set(false);
+            }
+        }
+    }
+}
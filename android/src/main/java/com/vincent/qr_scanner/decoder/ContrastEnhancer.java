@@ -0,0 +1,153 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * 对比度增强器：在二值化之前对光线较暗或对比度较低的分析区域进行直方图拉伸，提高暗光环境下首帧的识别率
+ *
+ * 先从均匀分布的{@link #MAX_SAMPLE_LINES}行统计亮度直方图，平均亮度和对比度（去掉两端{@link #CLIP_RATIO}后的亮度范围）都达标时直接返回原分析区域；
+ * 否则通过查找表将亮度范围线性拉伸到0 ~ 255，写入复用的缓冲区，每帧的额外耗时只有一次采样和一次查表
+ *
+ * 返回的亮度源基于复用的缓冲区，只在下一次调用{@link #enhance(LuminanceSource)}之前有效；主要在分析线程中调用，非线程安全
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/13 10:30
+ */
+public class ContrastEnhancer {
+
+    /**
+     * 默认的平均亮度阈值
+     */
+    public static final int DEFAULT_MEAN_THRESHOLD = 64;
+    /**
+     * 默认的对比度阈值
+     */
+    public static final int DEFAULT_CONTRAST_THRESHOLD = 96;
+    /**
+     * 最多采样的行数
+     */
+    static final int MAX_SAMPLE_LINES = 64;
+    /**
+     * 统计亮度范围时两端各去掉的像素比例，避免噪点和高光的影响
+     */
+    static final float CLIP_RATIO = 0.01f;
+    /**
+     * 亮度范围小于此值时认为是纯色区域，拉伸只会放大噪点
+     */
+    static final int MIN_RANGE = 8;
+
+    private final int meanThreshold;
+    private final int contrastThreshold;
+
+    private final int[] histogram = new int[256];
+    private final byte[] lookupTable = new byte[256];
+    private int lookupLow = -1;
+    private int lookupHigh = -1;
+    private byte[] row = new byte[0];
+    private byte[] buffer = new byte[0];
+
+    public ContrastEnhancer() {
+        this(DEFAULT_MEAN_THRESHOLD, DEFAULT_CONTRAST_THRESHOLD);
+    }
+
+    /**
+     *
+     * @param meanThreshold 平均亮度低于此值时进行增强
+     * @param contrastThreshold 对比度低于此值时进行增强
+     */
+    public ContrastEnhancer(@IntRange(from = 0, to = 255) int meanThreshold, @IntRange(from = 0, to = 255) int contrastThreshold) {
+        this.meanThreshold = meanThreshold;
+        this.contrastThreshold = contrastThreshold;
+    }
+
+    /**
+     * 按需增强分析区域的对比度
+     * @param source 分析区域
+     * @return 不需要增强时返回{@code source}，否则返回坐标与{@code source}一致的增强后的亮度源
+     */
+    @NonNull
+    public LuminanceSource enhance(@NonNull LuminanceSource source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int[] histogram = this.histogram;
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = 0;
+        }
+        if (row.length < width) {
+            row = new byte[width];
+        }
+        int stepY = Math.max(1, height / MAX_SAMPLE_LINES);
+        long sum = 0;
+        int count = 0;
+        for (int y = stepY / 2; y < height; y += stepY) {
+            byte[] luminances = source.getRow(y, row);
+            for (int x = 0; x < width; x++) {
+                int pixel = luminances[x] & 0xFF;
+                histogram[pixel]++;
+                sum += pixel;
+            }
+            count += width;
+        }
+        if (count == 0) {
+            return source;
+        }
+
+        int clip = (int) (count * CLIP_RATIO);
+        int low = 0;
+        int accumulated = histogram[0];
+        while (low < 255 && accumulated <= clip) {
+            accumulated += histogram[++low];
+        }
+        int high = 255;
+        accumulated = histogram[255];
+        while (high > 0 && accumulated <= clip) {
+            accumulated += histogram[--high];
+        }
+        int range = high - low;
+        if ((sum / count >= meanThreshold && range >= contrastThreshold) || range < MIN_RANGE) {
+            return source;
+        }
+
+        updateLookupTable(low, high);
+        int size = width * height;
+        if (buffer.length < size) {
+            buffer = new byte[size];
+        }
+        byte[] lookupTable = this.lookupTable;
+        byte[] buffer = this.buffer;
+        for (int y = 0, offset = 0; y < height; y++, offset += width) {
+            byte[] luminances = source.getRow(y, row);
+            for (int x = 0; x < width; x++) {
+                buffer[offset + x] = lookupTable[luminances[x] & 0xFF];
+            }
+        }
+        return new BufferedLuminanceSource(source, buffer);
+    }
+
+    /**
+     * 将[low, high]线性拉伸到[0, 255]，范围不变时复用上一次的查找表
+     */
+    private void updateLookupTable(int low, int high) {
+        if (low == lookupLow && high == lookupHigh) {
+            return;
+        }
+        int range = high - low;
+        for (int i = 0; i < 256; i++) {
+            int value = i <= low ? 0 : i >= high ? 255 : (i - low) * 255 / range;
+            lookupTable[i] = (byte) value;
+        }
+        lookupLow = low;
+        lookupHigh = high;
+    }
+
+    public int getMeanThreshold() {
+        return meanThreshold;
+    }
+
+    public int getContrastThreshold() {
+        return contrastThreshold;
+    }
+}
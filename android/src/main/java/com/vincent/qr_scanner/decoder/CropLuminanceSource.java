@@ -0,0 +1,67 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.ResultPoint;
+
+/**
+ * 裁剪亮度源：只读取{@link #getDelegate()}中指定区域的数据
+ *
+ * 一般情况下优先使用{@link LuminanceSource#crop(int, int, int, int)}，当被裁剪的亮度源不支持裁剪时才使用此视图；
+ * 读取单行时，传入的数组能容纳被裁剪的整行时直接读入后原地平移，否则借用当前线程{@link BinarizerBuffers}中的临时行，不会为每一行分配数组
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/02 14:36
+ */
+public class CropLuminanceSource extends TransformLuminanceSource {
+
+    private final int left;
+    private final int top;
+
+    public CropLuminanceSource(@NonNull LuminanceSource delegate, int left, int top, int width, int height) {
+        super(delegate, width, height);
+        if (left < 0 || top < 0 || left + width > delegate.getWidth() || top + height > delegate.getHeight()) {
+            throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+        }
+        this.left = left;
+        this.top = top;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        int dataWidth = delegate.getWidth();
+        //System.arraycopy在源和目标重叠时也能得到正确的结果，所以可以直接在传入的数组中平移
+        byte[] delegateRow = getDelegateRow(top + y, row.length >= dataWidth ? row : BinarizerBuffers.get().getScratchRow(dataWidth));
+        System.arraycopy(delegateRow, left, row, 0, width);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        int height = getHeight();
+        byte[] matrix = new byte[width * height];
+        byte[] delegateRow = new byte[delegate.getWidth()];
+        for (int y = 0; y < height; y++) {
+            delegateRow = getDelegateRow(top + y, delegateRow);
+            System.arraycopy(delegateRow, left, matrix, y * width, width);
+        }
+        return matrix;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        return new CropLuminanceSource(delegate, this.left + left, this.top + top, width, height);
+    }
+
+    @NonNull
+    @Override
+    public ResultPoint toDelegatePoint(@NonNull ResultPoint point) {
+        return new ResultPoint(point.getX() + left, point.getY() + top);
+    }
+}
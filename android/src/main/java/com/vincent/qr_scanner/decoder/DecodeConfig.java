@@ -3,6 +3,8 @@ package com.vincent.qr_scanner.decoder;
 import android.graphics.Rect;
 
 import androidx.annotation.FloatRange;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
@@ -43,8 +45,46 @@ import java.util.Map;
 public class DecodeConfig {
     private Map<DecodeHintType,Object> hints = DecodeFormatManager.DEFAULT_HINTS;
 
+    /**
+     * 解码配置文件，为空时根据{@link #hints}获取
+     */
+    private DecodeProfile decodeProfile;
+
     public static final float DEFAULT_AREA_RECT_RATIO = 0.8f;
 
+    /**
+     * 分级解码时，默认每隔多少帧进行一次完整解码
+     */
+    public static final int DEFAULT_THOROUGH_DECODE_INTERVAL = 5;
+    /**
+     * 分级解码时，默认连续多少帧解码失败后进行一次完整解码
+     */
+    public static final int DEFAULT_THOROUGH_DECODE_FAILURE_THRESHOLD = 3;
+
+    /**
+     * 金字塔解码时，默认先尝试的缩小倍数
+     */
+    public static final int DEFAULT_PYRAMID_SCALE_FACTOR = 2;
+
+    /**
+     * 扫描象限时，每个象限的边长相对于图像边长的比例，大于0.5使象限之间有一定的重叠
+     */
+    public static final float SWEEP_QUADRANT_RATIO = 0.6f;
+
+    /**
+     * 周期性扫描的方式
+     */
+    public enum SweepMode {
+        /**
+         * 扫描全区域
+         */
+        FULL,
+        /**
+         * 依次扫描四个象限，每次扫描的区域更小
+         */
+        QUADRANT
+    }
+
     /**
      * 是否支持使用多解码
      */
@@ -66,6 +106,151 @@ public class DecodeConfig {
      * 是否支持垂直的条码，使用多解码
      */
     private boolean isSupportVerticalCodeMultiDecode;
+    /**
+     * 是否支持镜像的码
+     */
+    private boolean isSupportMirrorCode;
+    /**
+     * 是否支持镜像的码，使用多解码
+     */
+    private boolean isSupportMirrorCodeMultiDecode;
+    /**
+     * 是否支持自适应二值化
+     */
+    private boolean isSupportAdaptiveBinarizer;
+
+    /**
+     * 是否并行解码
+     */
+    private boolean isParallelDecode;
+
+    /**
+     * 是否使用自适应解码策略
+     */
+    private boolean isAdaptiveStrategy;
+
+    /**
+     * 是否分级解码
+     */
+    private boolean isTieredDecode;
+    /**
+     * 分级解码时，每隔多少帧进行一次完整解码
+     */
+    private int thoroughDecodeInterval = DEFAULT_THOROUGH_DECODE_INTERVAL;
+    /**
+     * 分级解码时，连续多少帧解码失败后进行一次完整解码
+     */
+    private int thoroughDecodeFailureThreshold = DEFAULT_THOROUGH_DECODE_FAILURE_THRESHOLD;
+
+    /**
+     * 是否金字塔解码
+     */
+    private boolean isPyramidDecode;
+    /**
+     * 金字塔解码时先尝试的缩小倍数
+     */
+    private int pyramidScaleFactor = DEFAULT_PYRAMID_SCALE_FACTOR;
+
+    /**
+     * 是否跟踪识别区域
+     */
+    private boolean isRoiTracking;
+
+    /**
+     * 每隔多少帧周期性扫描一次
+     */
+    private int sweepInterval;
+    /**
+     * 周期性扫描的方式
+     */
+    private SweepMode sweepMode = SweepMode.FULL;
+
+    /**
+     * 是否过滤模糊帧
+     */
+    private boolean isSharpnessFilter;
+    /**
+     * 模糊帧过滤的阈值比例
+     */
+    private float sharpnessThresholdRatio = SharpnessEstimator.DEFAULT_THRESHOLD_RATIO;
+
+    /**
+     * 是否开启帧差门控
+     */
+    private boolean isFrameDifferenceGate;
+    /**
+     * 帧差门控的差异阈值
+     */
+    private float frameDifferenceThreshold = FrameDifferenceGate.DEFAULT_THRESHOLD;
+    /**
+     * 帧差门控强制解码的间隔帧数
+     */
+    private int forceDecodeInterval = FrameDifferenceGate.DEFAULT_FORCE_DECODE_INTERVAL;
+
+    /**
+     * 是否开启对比度增强
+     */
+    private boolean isContrastEnhance;
+    /**
+     * 对比度增强的平均亮度阈值
+     */
+    private int contrastEnhanceMeanThreshold = ContrastEnhancer.DEFAULT_MEAN_THRESHOLD;
+    /**
+     * 对比度增强的对比度阈值
+     */
+    private int contrastEnhanceContrastThreshold = ContrastEnhancer.DEFAULT_CONTRAST_THRESHOLD;
+
+    /**
+     * 是否开启多帧时域降噪
+     */
+    private boolean isTemporalDenoise;
+    /**
+     * 时域降噪参与平均的帧数
+     */
+    private int temporalDenoiseFrameCount = TemporalDenoiser.DEFAULT_FRAME_COUNT;
+    /**
+     * 时域降噪的运动阈值
+     */
+    private float temporalDenoiseMotionThreshold = TemporalDenoiser.DEFAULT_MOTION_THRESHOLD;
+
+    /**
+     * 是否开启候选区域预检测
+     */
+    private boolean isCandidateDetect;
+    /**
+     * 候选区域预检测时完整解码的间隔帧数
+     */
+    private int candidateFullDecodeInterval = CandidateDetector.DEFAULT_FULL_DECODE_INTERVAL;
+
+    /**
+     * 一维码解析器每个方向的扫描线数
+     */
+    private int scanLineCount = OneDimensionalAnalyzer.DEFAULT_SCAN_LINE_COUNT;
+    /**
+     * 一维码解析器是否多角度扫描
+     */
+    private boolean isAngledScanLine;
+    /**
+     * 一维码解析器多角度扫描的角度间隔
+     */
+    private int scanAngleStep = OneDimensionalAnalyzer.DEFAULT_SCAN_ANGLE_STEP;
+
+    /**
+     * 是否开启格式学习
+     */
+    private boolean isFormatLearning;
+    /**
+     * 格式学习收窄前需要识别成功的次数
+     */
+    private int formatLearningThreshold = FormatLearner.DEFAULT_LEARNING_THRESHOLD;
+    /**
+     * 格式学习收窄后使用完整格式探测的间隔帧数
+     */
+    private int formatProbeInterval = FormatLearner.DEFAULT_PROBE_INTERVAL;
+    /**
+     * 格式学习收窄后恢复完整格式前连续识别失败的帧数
+     */
+    private int formatMissThreshold = FormatLearner.DEFAULT_MISS_THRESHOLD;
 
     /**
      * 需要分析识别区域
@@ -117,6 +302,42 @@ public class DecodeConfig {
      */
     public DecodeConfig setHints(Map<DecodeHintType, Object> hints) {
         this.hints = hints;
+        this.decodeProfile = null;
+        return this;
+    }
+
+    /**
+     * 解码配置文件，如果没有设置过，则根据{@link #getHints()}获取
+     * @return
+     */
+    @NonNull
+    public DecodeProfile getDecodeProfile() {
+        if(decodeProfile == null){
+            decodeProfile = DecodeFormatManager.getDecodeProfile(hints);
+        }
+        return decodeProfile;
+    }
+
+    /**
+     * 设置解码配置文件，与{@link #setHints(Map)}作用相同，但解码配置文件是不可变的，可在多个分析器之间共享，
+     * 且每个线程只需创建一次读取器，避免每帧重新设置解码参数
+     * @param decodeProfile {@link DecodeFormatManager}
+     *
+     * 内置的一些解码配置文件可参见如下：
+     * @see {@link DecodeFormatManager#DEFAULT_PROFILE}
+     * @see {@link DecodeFormatManager#ALL_PROFILE}
+     * @see {@link DecodeFormatManager#CODE_128_PROFILE}
+     * @see {@link DecodeFormatManager#QR_CODE_PROFILE}
+     * @see {@link DecodeFormatManager#ONE_DIMENSIONAL_PROFILE}
+     * @see {@link DecodeFormatManager#TWO_DIMENSIONAL_PROFILE}
+     *
+     * 如果不满足您也可以通过{@link DecodeFormatManager#createDecodeProfile(BarcodeFormat...)}自己配置支持的格式
+     *
+     * @return
+     */
+    public DecodeConfig setDecodeProfile(@NonNull DecodeProfile decodeProfile) {
+        this.decodeProfile = decodeProfile;
+        this.hints = decodeProfile.getHints();
         return this;
     }
 
@@ -213,6 +434,614 @@ public class DecodeConfig {
         return this;
     }
 
+    /**
+     * 是否支持扫镜像的码
+     * @return
+     */
+    public boolean isSupportMirrorCode() {
+        return isSupportMirrorCode;
+    }
+
+    /**
+     * 设置是否支持扫镜像的码（如透过玻璃背面或使用前置摄像头扫码时）
+     * @param supportMirrorCode 默认为{@code false}，想要增强支持扫码识别镜像的码时可使用，相应的也会增加性能消耗。
+     * @return
+     */
+    public DecodeConfig setSupportMirrorCode(boolean supportMirrorCode) {
+        isSupportMirrorCode = supportMirrorCode;
+        return this;
+    }
+
+    /**
+     * 是否支持镜像的码，使用多解码
+     * @return
+     */
+    public boolean isSupportMirrorCodeMultiDecode() {
+        return isSupportMirrorCodeMultiDecode;
+    }
+
+    /**
+     * 设置是否支持镜像的码，使用多解码
+     * @see {@link HybridBinarizer} , {@link GlobalHistogramBinarizer}
+     * @param supportMirrorCodeMultiDecode 默认为{@code false}，想要增强支持扫码识别镜像的码时可使用，相应的也会增加性能消耗。
+     * @return
+     */
+    public DecodeConfig setSupportMirrorCodeMultiDecode(boolean supportMirrorCodeMultiDecode) {
+        isSupportMirrorCodeMultiDecode = supportMirrorCodeMultiDecode;
+        return this;
+    }
+
+    /**
+     * 是否支持自适应二值化
+     * @return
+     */
+    public boolean isSupportAdaptiveBinarizer() {
+        return isSupportAdaptiveBinarizer;
+    }
+
+    /**
+     * 设置是否支持自适应二值化：每种变换方式在{@link HybridBinarizer}和{@link GlobalHistogramBinarizer}都解析失败后，
+     * 再采用{@link AdaptiveBinarizer}解析一次
+     * @param supportAdaptiveBinarizer 默认为{@code false}，想要增强支持在光线较暗或明暗不均的环境中扫码识别时可使用，相应的也会增加性能消耗。
+     * @return
+     */
+    public DecodeConfig setSupportAdaptiveBinarizer(boolean supportAdaptiveBinarizer) {
+        isSupportAdaptiveBinarizer = supportAdaptiveBinarizer;
+        return this;
+    }
+
+    /**
+     * 是否并行解码
+     * @return
+     */
+    public boolean isParallelDecode() {
+        return isParallelDecode;
+    }
+
+    /**
+     * 设置是否并行解码，开启后会在{@link DecodeExecutor}中同时尝试所有的解码策略（二值化方式、垂直、反色、镜像），
+     * 任意一个策略解码成功后，会取消其它还未开始执行的策略
+     * @param parallelDecode 默认为{@code false}，多核设备上可降低单帧解码的最长耗时，相应的也会增加CPU占用。
+     * @return
+     */
+    public DecodeConfig setParallelDecode(boolean parallelDecode) {
+        isParallelDecode = parallelDecode;
+        return this;
+    }
+
+    /**
+     * 是否使用自适应解码策略
+     * @return
+     */
+    public boolean isAdaptiveStrategy() {
+        return isAdaptiveStrategy;
+    }
+
+    /**
+     * 设置是否使用自适应解码策略，开启后会记录每个解码策略的成功率和耗时，优先尝试成功率高且耗时少的策略，
+     * 并跳过一直没有成功过的策略（如仓库中所有的条码都是反色码时）；多码识别时同样生效
+     * @see {@link StrategyScheduler}
+     * @param adaptiveStrategy 默认为{@code false}
+     * @return
+     */
+    public DecodeConfig setAdaptiveStrategy(boolean adaptiveStrategy) {
+        isAdaptiveStrategy = adaptiveStrategy;
+        return this;
+    }
+
+    /**
+     * 是否分级解码
+     * @return
+     */
+    public boolean isTieredDecode() {
+        return isTieredDecode;
+    }
+
+    /**
+     * 设置是否分级解码，开启后每帧先进行一次不使用{@link DecodeHintType#TRY_HARDER}的快速解码，
+     * 快速解码失败时，只有每隔{@link #setThoroughDecodeInterval(int)}帧或连续失败{@link #setThoroughDecodeFailureThreshold(int)}帧后才进行一次完整解码
+     * @param tieredDecode 默认为{@code false}，印刷清晰的码大多在快速解码时即可识别，可明显降低每帧的解码耗时。
+     * @return
+     */
+    public DecodeConfig setTieredDecode(boolean tieredDecode) {
+        isTieredDecode = tieredDecode;
+        return this;
+    }
+
+    /**
+     * 分级解码时，每隔多少帧进行一次完整解码
+     * @return
+     */
+    public int getThoroughDecodeInterval() {
+        return thoroughDecodeInterval;
+    }
+
+    /**
+     * 设置分级解码时，每隔多少帧进行一次完整解码
+     * @param thoroughDecodeInterval 默认为{@link #DEFAULT_THOROUGH_DECODE_INTERVAL}
+     * @return
+     */
+    public DecodeConfig setThoroughDecodeInterval(@IntRange(from = 1) int thoroughDecodeInterval) {
+        this.thoroughDecodeInterval = thoroughDecodeInterval;
+        return this;
+    }
+
+    /**
+     * 分级解码时，连续多少帧解码失败后进行一次完整解码
+     * @return
+     */
+    public int getThoroughDecodeFailureThreshold() {
+        return thoroughDecodeFailureThreshold;
+    }
+
+    /**
+     * 设置分级解码时，连续多少帧解码失败后进行一次完整解码
+     * @param thoroughDecodeFailureThreshold 默认为{@link #DEFAULT_THOROUGH_DECODE_FAILURE_THRESHOLD}
+     * @return
+     */
+    public DecodeConfig setThoroughDecodeFailureThreshold(@IntRange(from = 1) int thoroughDecodeFailureThreshold) {
+        this.thoroughDecodeFailureThreshold = thoroughDecodeFailureThreshold;
+        return this;
+    }
+
+    /**
+     * 是否金字塔解码
+     * @return
+     */
+    public boolean isPyramidDecode() {
+        return isPyramidDecode;
+    }
+
+    /**
+     * 设置是否金字塔解码，开启后先识别按{@link #setPyramidScaleFactor(int)}缩小后的分析区域，识别失败时才识别原始分辨率的分析区域；
+     * 多码识别（{@link MultiCodeAnalyzer#analyzeMultiple(com.google.zxing.LuminanceSource)}）时不使用
+     * @param pyramidDecode 默认为{@code false}，画面中较大的码在缩小后一般都能识别，可明显降低平均耗时；较小的码则会多一次缩小后的识别。
+     * @return
+     */
+    public DecodeConfig setPyramidDecode(boolean pyramidDecode) {
+        isPyramidDecode = pyramidDecode;
+        return this;
+    }
+
+    /**
+     * 金字塔解码时先尝试的缩小倍数
+     * @return
+     */
+    public int getPyramidScaleFactor() {
+        return pyramidScaleFactor;
+    }
+
+    /**
+     * 设置金字塔解码时先尝试的缩小倍数
+     * @param pyramidScaleFactor 默认为{@link #DEFAULT_PYRAMID_SCALE_FACTOR}，一般为2或4
+     * @return
+     */
+    public DecodeConfig setPyramidScaleFactor(@IntRange(from = 2) int pyramidScaleFactor) {
+        this.pyramidScaleFactor = pyramidScaleFactor;
+        return this;
+    }
+
+    /**
+     * 每隔多少帧周期性扫描一次
+     * @return
+     */
+    public int getSweepInterval() {
+        return sweepInterval;
+    }
+
+    /**
+     * 设置每隔多少帧周期性扫描一次：大部分帧只识别中心区域（即：{@link #setAreaRectRatio(float)}等计算出的区域），
+     * 每隔{@code sweepInterval}帧按{@link #setSweepMode(SweepMode)}扫描一次，兼顾识别速度和偏离中心的码；
+     * 多码识别（{@link MultiCodeAnalyzer#analyzeMultiple(com.google.zxing.LuminanceSource)}）时不使用，多码识别始终识别中心区域
+     * @param sweepInterval 默认为0，表示不周期性扫描；{@link #isFullAreaScan()}为{@code true}时无效
+     * @return
+     */
+    public DecodeConfig setSweepInterval(@IntRange(from = 0) int sweepInterval) {
+        this.sweepInterval = sweepInterval;
+        return this;
+    }
+
+    /**
+     * 周期性扫描的方式
+     * @return
+     */
+    @NonNull
+    public SweepMode getSweepMode() {
+        return sweepMode;
+    }
+
+    /**
+     * 设置周期性扫描的方式
+     * @param sweepMode 默认为{@link SweepMode#FULL}
+     * @return
+     */
+    public DecodeConfig setSweepMode(@NonNull SweepMode sweepMode) {
+        this.sweepMode = sweepMode;
+        return this;
+    }
+
+    /**
+     * 是否跟踪识别区域
+     * @return
+     */
+    public boolean isRoiTracking() {
+        return isRoiTracking;
+    }
+
+    /**
+     * 设置是否跟踪识别区域，开启后会根据上一次识别结果的坐标点预测下一帧的识别区域，连续多帧没有识别到时恢复使用默认的识别区域；
+     * 多码识别（{@link MultiCodeAnalyzer#analyzeMultiple(com.google.zxing.LuminanceSource)}）时不使用
+     * @param roiTracking 默认为{@code false}，连续扫码时大部分帧只需识别码附近的较小区域，可明显降低每帧的解码耗时。
+     * @return
+     */
+    public DecodeConfig setRoiTracking(boolean roiTracking) {
+        isRoiTracking = roiTracking;
+        return this;
+    }
+
+    /**
+     * 是否过滤模糊帧
+     * @return
+     */
+    public boolean isSharpnessFilter() {
+        return isSharpnessFilter;
+    }
+
+    /**
+     * 设置是否过滤模糊帧，开启后会在二值化之前评估分析区域的清晰度，明显比最近的帧更模糊时直接跳过
+     * @param sharpnessFilter 默认为{@code false}，手持移动设备时可跳过大量模糊帧的解码，评估本身只会采样少量的像素。
+     * @return
+     */
+    public DecodeConfig setSharpnessFilter(boolean sharpnessFilter) {
+        isSharpnessFilter = sharpnessFilter;
+        return this;
+    }
+
+    /**
+     * 模糊帧过滤的阈值比例
+     * @return
+     */
+    public float getSharpnessThresholdRatio() {
+        return sharpnessThresholdRatio;
+    }
+
+    /**
+     * 设置模糊帧过滤的阈值比例：清晰度评分低于最近平均评分的多少倍时过滤掉
+     * @param sharpnessThresholdRatio 默认为{@link SharpnessEstimator#DEFAULT_THRESHOLD_RATIO}，值越大过滤的帧越多
+     * @return
+     */
+    public DecodeConfig setSharpnessThresholdRatio(@FloatRange(from = 0.0,to = 1.0) float sharpnessThresholdRatio) {
+        this.sharpnessThresholdRatio = sharpnessThresholdRatio;
+        return this;
+    }
+
+    /**
+     * 是否开启帧差门控
+     * @return
+     */
+    public boolean isFrameDifferenceGate() {
+        return isFrameDifferenceGate;
+    }
+
+    /**
+     * 设置是否开启帧差门控，开启后分析区域与上一次解码失败时几乎相同时直接跳过解码
+     * @param frameDifferenceGate 默认为{@code false}，摄像头长时间对着静止的场景时可大幅降低CPU占用。
+     * @return
+     */
+    public DecodeConfig setFrameDifferenceGate(boolean frameDifferenceGate) {
+        isFrameDifferenceGate = frameDifferenceGate;
+        return this;
+    }
+
+    /**
+     * 帧差门控的差异阈值
+     * @return
+     */
+    public float getFrameDifferenceThreshold() {
+        return frameDifferenceThreshold;
+    }
+
+    /**
+     * 设置帧差门控的差异阈值：缩略签名中每个格子的平均亮度差（0~255）小于此值时跳过解码
+     * @param frameDifferenceThreshold 默认为{@link FrameDifferenceGate#DEFAULT_THRESHOLD}
+     * @return
+     */
+    public DecodeConfig setFrameDifferenceThreshold(@FloatRange(from = 0.0,to = 255.0) float frameDifferenceThreshold) {
+        this.frameDifferenceThreshold = frameDifferenceThreshold;
+        return this;
+    }
+
+    /**
+     * 帧差门控强制解码的间隔帧数
+     * @return
+     */
+    public int getForceDecodeInterval() {
+        return forceDecodeInterval;
+    }
+
+    /**
+     * 设置帧差门控强制解码的间隔帧数：连续跳过此帧数后，即使画面没有变化也会强制解码一次
+     * @param forceDecodeInterval 默认为{@link FrameDifferenceGate#DEFAULT_FORCE_DECODE_INTERVAL}
+     * @return
+     */
+    public DecodeConfig setForceDecodeInterval(@IntRange(from = 0) int forceDecodeInterval) {
+        this.forceDecodeInterval = forceDecodeInterval;
+        return this;
+    }
+
+    /**
+     * 是否开启对比度增强
+     * @return
+     */
+    public boolean isContrastEnhance() {
+        return isContrastEnhance;
+    }
+
+    /**
+     * 设置是否开启对比度增强，开启后分析区域的平均亮度或对比度低于阈值时，先拉伸亮度范围再进行二值化
+     * @param contrastEnhance 默认为{@code false}，想要提高暗光环境下的识别率时可使用，只有需要增强时才会增加性能消耗。
+     * @return
+     */
+    public DecodeConfig setContrastEnhance(boolean contrastEnhance) {
+        isContrastEnhance = contrastEnhance;
+        return this;
+    }
+
+    /**
+     * 对比度增强的平均亮度阈值
+     * @return
+     */
+    public int getContrastEnhanceMeanThreshold() {
+        return contrastEnhanceMeanThreshold;
+    }
+
+    /**
+     * 设置对比度增强的平均亮度阈值：分析区域的平均亮度（0~255）低于此值时进行增强
+     * @param contrastEnhanceMeanThreshold 默认为{@link ContrastEnhancer#DEFAULT_MEAN_THRESHOLD}
+     * @return
+     */
+    public DecodeConfig setContrastEnhanceMeanThreshold(@IntRange(from = 0,to = 255) int contrastEnhanceMeanThreshold) {
+        this.contrastEnhanceMeanThreshold = contrastEnhanceMeanThreshold;
+        return this;
+    }
+
+    /**
+     * 对比度增强的对比度阈值
+     * @return
+     */
+    public int getContrastEnhanceContrastThreshold() {
+        return contrastEnhanceContrastThreshold;
+    }
+
+    /**
+     * 设置对比度增强的对比度阈值：分析区域去掉两端极值后的亮度范围（0~255）小于此值时进行增强
+     * @param contrastEnhanceContrastThreshold 默认为{@link ContrastEnhancer#DEFAULT_CONTRAST_THRESHOLD}
+     * @return
+     */
+    public DecodeConfig setContrastEnhanceContrastThreshold(@IntRange(from = 0,to = 255) int contrastEnhanceContrastThreshold) {
+        this.contrastEnhanceContrastThreshold = contrastEnhanceContrastThreshold;
+        return this;
+    }
+
+    /**
+     * 是否开启多帧时域降噪
+     * @return
+     */
+    public boolean isTemporalDenoise() {
+        return isTemporalDenoise;
+    }
+
+    /**
+     * 设置是否开启多帧时域降噪，开启后单帧连续解码失败时，再解码最近几帧分析区域的加权平均，相机移动时重新开始累加；
+     * 多码识别（{@link MultiCodeAnalyzer#analyzeMultiple(com.google.zxing.LuminanceSource)}）时不使用
+     * @param temporalDenoise 默认为{@code false}，想要提高暗光、高噪点环境下的识别率时可使用，单帧解码失败时会多解码一次。
+     * @return
+     */
+    public DecodeConfig setTemporalDenoise(boolean temporalDenoise) {
+        isTemporalDenoise = temporalDenoise;
+        return this;
+    }
+
+    /**
+     * 时域降噪参与平均的帧数
+     * @return
+     */
+    public int getTemporalDenoiseFrameCount() {
+        return temporalDenoiseFrameCount;
+    }
+
+    /**
+     * 设置时域降噪参与平均的帧数：帧数越多降噪效果越好，但画面变化后需要更多帧才能跟上
+     * @param temporalDenoiseFrameCount 默认为{@link TemporalDenoiser#DEFAULT_FRAME_COUNT}
+     * @return
+     */
+    public DecodeConfig setTemporalDenoiseFrameCount(@IntRange(from = 2) int temporalDenoiseFrameCount) {
+        this.temporalDenoiseFrameCount = temporalDenoiseFrameCount;
+        return this;
+    }
+
+    /**
+     * 时域降噪的运动阈值
+     * @return
+     */
+    public float getTemporalDenoiseMotionThreshold() {
+        return temporalDenoiseMotionThreshold;
+    }
+
+    /**
+     * 设置时域降噪的运动阈值：缩略签名中每个格子与上一帧的平均亮度差（0~255）超过此值时，认为相机发生了移动，重新开始累加
+     * @param temporalDenoiseMotionThreshold 默认为{@link TemporalDenoiser#DEFAULT_MOTION_THRESHOLD}
+     * @return
+     */
+    public DecodeConfig setTemporalDenoiseMotionThreshold(@FloatRange(from = 0.0,to = 255.0) float temporalDenoiseMotionThreshold) {
+        this.temporalDenoiseMotionThreshold = temporalDenoiseMotionThreshold;
+        return this;
+    }
+
+    /**
+     * 是否开启候选区域预检测
+     * @return
+     */
+    public boolean isCandidateDetect() {
+        return isCandidateDetect;
+    }
+
+    /**
+     * 设置是否开启候选区域预检测，开启后先在缩小的分析区域中查找二维码定位图形和一维码条空，只解码找到的候选区域，没有候选区域时跳过解码；
+     * 多码识别（{@link MultiCodeAnalyzer#analyzeMultiple(com.google.zxing.LuminanceSource)}）时不使用
+     * @param candidateDetect 默认为{@code false}，画面中大部分时间没有码、想要降低耗电时可使用；模块小于4个像素的码以及Data Matrix、Aztec等码只能在完整解码的帧中识别。
+     * @return
+     */
+    public DecodeConfig setCandidateDetect(boolean candidateDetect) {
+        isCandidateDetect = candidateDetect;
+        return this;
+    }
+
+    /**
+     * 候选区域预检测时完整解码的间隔帧数
+     * @return
+     */
+    public int getCandidateFullDecodeInterval() {
+        return candidateFullDecodeInterval;
+    }
+
+    /**
+     * 设置候选区域预检测时完整解码的间隔帧数：每隔多少帧不经过预检测，完整解码一次分析区域，用于识别预检测找不到的码
+     * @param candidateFullDecodeInterval 默认为{@link CandidateDetector#DEFAULT_FULL_DECODE_INTERVAL}，小于1时表示只解码候选区域
+     * @return
+     */
+    public DecodeConfig setCandidateFullDecodeInterval(int candidateFullDecodeInterval) {
+        this.candidateFullDecodeInterval = candidateFullDecodeInterval;
+        return this;
+    }
+
+    /**
+     * 一维码解析器每个方向的扫描线数
+     * @return
+     */
+    public int getScanLineCount() {
+        return scanLineCount;
+    }
+
+    /**
+     * 设置{@link OneDimensionalAnalyzer}每个方向的扫描线数：扫描线从分析区域的中心开始向两侧均匀展开，线数越多越容易扫到偏离中心的码，但识别失败时耗时也越多
+     * @param scanLineCount 默认为{@link OneDimensionalAnalyzer#DEFAULT_SCAN_LINE_COUNT}
+     * @return
+     */
+    public DecodeConfig setScanLineCount(@IntRange(from = 1) int scanLineCount) {
+        this.scanLineCount = scanLineCount;
+        return this;
+    }
+
+    /**
+     * 一维码解析器是否多角度扫描
+     * @return
+     */
+    public boolean isAngledScanLine() {
+        return isAngledScanLine;
+    }
+
+    /**
+     * 设置{@link OneDimensionalAnalyzer}是否多角度扫描，开启后水平（和垂直）扫描线识别失败时，再每隔{@link #getScanAngleStep()}度扫描一组倾斜的扫描线
+     * @param angledScanLine 默认为{@code false}，条码经常倾斜放置（如：随意摆放的包裹）时可使用，识别失败时的耗时与扫描的角度数成正比。
+     * @return
+     */
+    public DecodeConfig setAngledScanLine(boolean angledScanLine) {
+        isAngledScanLine = angledScanLine;
+        return this;
+    }
+
+    /**
+     * 一维码解析器多角度扫描的角度间隔
+     * @return
+     */
+    public int getScanAngleStep() {
+        return scanAngleStep;
+    }
+
+    /**
+     * 设置{@link OneDimensionalAnalyzer}多角度扫描的角度间隔：间隔越小，能识别的倾斜条码越短越密，但识别失败时耗时也越多
+     * @param scanAngleStep 默认为{@link OneDimensionalAnalyzer#DEFAULT_SCAN_ANGLE_STEP}，即每隔15°扫描一次
+     * @return
+     */
+    public DecodeConfig setScanAngleStep(@IntRange(from = 1,to = 90) int scanAngleStep) {
+        this.scanAngleStep = scanAngleStep;
+        return this;
+    }
+
+    /**
+     * 是否开启格式学习
+     * @return
+     */
+    public boolean isFormatLearning() {
+        return isFormatLearning;
+    }
+
+    /**
+     * 设置是否开启格式学习，开启后累计识别成功一定次数后，只使用本次会话中识别到过的格式进行解码，
+     * 每隔一定帧数仍会使用完整的格式探测一次，连续识别失败一定帧数后恢复使用完整的格式
+     * @param formatLearning 默认为{@code false}，支持的格式较多（如：{@link DecodeFormatManager#ALL_HINTS}）但实际只会扫到少数几种格式时可使用。
+     * @return
+     */
+    public DecodeConfig setFormatLearning(boolean formatLearning) {
+        isFormatLearning = formatLearning;
+        return this;
+    }
+
+    /**
+     * 格式学习收窄前需要识别成功的次数
+     * @return
+     */
+    public int getFormatLearningThreshold() {
+        return formatLearningThreshold;
+    }
+
+    /**
+     * 设置格式学习收窄前需要识别成功的次数
+     * @param formatLearningThreshold 默认为{@link FormatLearner#DEFAULT_LEARNING_THRESHOLD}
+     * @return
+     */
+    public DecodeConfig setFormatLearningThreshold(@IntRange(from = 1) int formatLearningThreshold) {
+        this.formatLearningThreshold = formatLearningThreshold;
+        return this;
+    }
+
+    /**
+     * 格式学习收窄后使用完整格式探测的间隔帧数
+     * @return
+     */
+    public int getFormatProbeInterval() {
+        return formatProbeInterval;
+    }
+
+    /**
+     * 设置格式学习收窄后使用完整格式探测的间隔帧数：探测到新的格式时会加入到收窄的格式中
+     * @param formatProbeInterval 默认为{@link FormatLearner#DEFAULT_PROBE_INTERVAL}，小于1时表示不探测
+     * @return
+     */
+    public DecodeConfig setFormatProbeInterval(int formatProbeInterval) {
+        this.formatProbeInterval = formatProbeInterval;
+        return this;
+    }
+
+    /**
+     * 格式学习收窄后恢复完整格式前连续识别失败的帧数
+     * @return
+     */
+    public int getFormatMissThreshold() {
+        return formatMissThreshold;
+    }
+
+    /**
+     * 设置格式学习收窄后恢复完整格式前连续识别失败的帧数（不含探测帧）
+     * @param formatMissThreshold 默认为{@link FormatLearner#DEFAULT_MISS_THRESHOLD}，小于1时表示不恢复
+     * @return
+     */
+    public DecodeConfig setFormatMissThreshold(int formatMissThreshold) {
+        this.formatMissThreshold = formatMissThreshold;
+        return this;
+    }
+
     /**
      * 需要分析识别区域
      * @return
@@ -339,11 +1168,45 @@ public class DecodeConfig {
     public String toString() {
         return "DecodeConfig{" +
                 "hints=" + hints +
+                ", decodeProfile=" + decodeProfile +
                 ", isMultiDecode=" + isMultiDecode +
                 ", isSupportLuminanceInvert=" + isSupportLuminanceInvert +
                 ", isSupportLuminanceInvertMultiDecode=" + isSupportLuminanceInvertMultiDecode +
                 ", isSupportVerticalCode=" + isSupportVerticalCode +
                 ", isSupportVerticalCodeMultiDecode=" + isSupportVerticalCodeMultiDecode +
+                ", isSupportMirrorCode=" + isSupportMirrorCode +
+                ", isSupportMirrorCodeMultiDecode=" + isSupportMirrorCodeMultiDecode +
+                ", isSupportAdaptiveBinarizer=" + isSupportAdaptiveBinarizer +
+                ", isParallelDecode=" + isParallelDecode +
+                ", isAdaptiveStrategy=" + isAdaptiveStrategy +
+                ", isTieredDecode=" + isTieredDecode +
+                ", thoroughDecodeInterval=" + thoroughDecodeInterval +
+                ", thoroughDecodeFailureThreshold=" + thoroughDecodeFailureThreshold +
+                ", isPyramidDecode=" + isPyramidDecode +
+                ", pyramidScaleFactor=" + pyramidScaleFactor +
+                ", sweepInterval=" + sweepInterval +
+                ", sweepMode=" + sweepMode +
+                ", isRoiTracking=" + isRoiTracking +
+                ", isSharpnessFilter=" + isSharpnessFilter +
+                ", sharpnessThresholdRatio=" + sharpnessThresholdRatio +
+                ", isFrameDifferenceGate=" + isFrameDifferenceGate +
+                ", frameDifferenceThreshold=" + frameDifferenceThreshold +
+                ", forceDecodeInterval=" + forceDecodeInterval +
+                ", isContrastEnhance=" + isContrastEnhance +
+                ", contrastEnhanceMeanThreshold=" + contrastEnhanceMeanThreshold +
+                ", contrastEnhanceContrastThreshold=" + contrastEnhanceContrastThreshold +
+                ", isTemporalDenoise=" + isTemporalDenoise +
+                ", temporalDenoiseFrameCount=" + temporalDenoiseFrameCount +
+                ", temporalDenoiseMotionThreshold=" + temporalDenoiseMotionThreshold +
+                ", isCandidateDetect=" + isCandidateDetect +
+                ", candidateFullDecodeInterval=" + candidateFullDecodeInterval +
+                ", scanLineCount=" + scanLineCount +
+                ", isAngledScanLine=" + isAngledScanLine +
+                ", scanAngleStep=" + scanAngleStep +
+                ", isFormatLearning=" + isFormatLearning +
+                ", formatLearningThreshold=" + formatLearningThreshold +
+                ", formatProbeInterval=" + formatProbeInterval +
+                ", formatMissThreshold=" + formatMissThreshold +
                 ", analyzeAreaRect=" + analyzeAreaRect +
                 ", isFullAreaScan=" + isFullAreaScan +
                 ", areaRectRatio=" + areaRectRatio +
@@ -0,0 +1,82 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 解码线程池：并行解码时共用的有界线程池，线程数为CPU核心数减一（调用线程自身也会参与解码）
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/03 10:58
+ */
+public final class DecodeExecutor {
+
+    private static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile ExecutorService sExecutor;
+
+    private DecodeExecutor() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 获取解码线程池
+     * @return
+     */
+    @NonNull
+    public static ExecutorService get() {
+        if (sExecutor == null) {
+            synchronized (DecodeExecutor.class) {
+                if (sExecutor == null) {
+                    ThreadPoolExecutor executor = new ThreadPoolExecutor(PARALLELISM, PARALLELISM,
+                            KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new DecodeThreadFactory());
+                    //空闲时回收线程，避免不扫码时常驻
+                    executor.allowCoreThreadTimeOut(true);
+                    sExecutor = executor;
+                }
+            }
+        }
+        return sExecutor;
+    }
+
+    /**
+     * 线程池的线程数
+     * @return
+     */
+    public static int getParallelism() {
+        return PARALLELISM;
+    }
+
+    /**
+     * 当前线程是否为解码线程池的线程，在解码线程中提交任务并等待可能会占满线程池导致死锁
+     * @return
+     */
+    public static boolean isDecodeThread() {
+        return Thread.currentThread() instanceof DecodeThread;
+    }
+
+    private static final class DecodeThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable r) {
+            Thread thread = new DecodeThread(r, "QrScanner-Decode-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static final class DecodeThread extends Thread {
+        DecodeThread(Runnable target, String name) {
+            super(target, name);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.vincent.qr_scanner.decoder;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.DecodeHintType;
@@ -21,39 +22,53 @@ public class DecodeFormatManager {
     /**
      * 所有的
      */
-    public static final Map<DecodeHintType,Object> ALL_HINTS = new EnumMap<>(DecodeHintType.class);
+    public static final Map<DecodeHintType,Object> ALL_HINTS = createUnmodifiableDecodeHints(getAllFormats());
     /**
      * CODE_128 (最常用的一维码)
      */
-    public static final Map<DecodeHintType,Object> CODE_128_HINTS = createDecodeHint(BarcodeFormat.CODE_128);
+    public static final Map<DecodeHintType,Object> CODE_128_HINTS = createUnmodifiableDecodeHints(singletonList(BarcodeFormat.CODE_128));
     /**
      * QR_CODE (最常用的二维码)
      */
-    public static final Map<DecodeHintType,Object> QR_CODE_HINTS = createDecodeHint(BarcodeFormat.QR_CODE);
+    public static final Map<DecodeHintType,Object> QR_CODE_HINTS = createUnmodifiableDecodeHints(singletonList(BarcodeFormat.QR_CODE));
     /**
      * 一维码
      */
-    public static final Map<DecodeHintType,Object> ONE_DIMENSIONAL_HINTS = new EnumMap<>(DecodeHintType.class);
+    public static final Map<DecodeHintType,Object> ONE_DIMENSIONAL_HINTS = createUnmodifiableDecodeHints(getOneDimensionalFormats());
     /**
      * 二维码
      */
-    public static final Map<DecodeHintType,Object> TWO_DIMENSIONAL_HINTS = new EnumMap<>(DecodeHintType.class);
+    public static final Map<DecodeHintType,Object> TWO_DIMENSIONAL_HINTS = createUnmodifiableDecodeHints(getTwoDimensionalFormats());
 
     /**
      * 默认
      */
-    public static final Map<DecodeHintType,Object> DEFAULT_HINTS = new EnumMap<>(DecodeHintType.class);
-
-    static {
-        //all hints
-        addDecodeHintTypes(ALL_HINTS, getAllFormats());
-        //one dimension
-        addDecodeHintTypes(ONE_DIMENSIONAL_HINTS, getOneDimensionalFormats());
-        //Two dimension
-        addDecodeHintTypes(TWO_DIMENSIONAL_HINTS, getTwoDimensionalFormats());
-        //default hints
-        addDecodeHintTypes(DEFAULT_HINTS, getDefaultFormats());
-    }
+    public static final Map<DecodeHintType,Object> DEFAULT_HINTS = createUnmodifiableDecodeHints(getDefaultFormats());
+
+    /**
+     * 所有的
+     */
+    public static final DecodeProfile ALL_PROFILE = new DecodeProfile(ALL_HINTS);
+    /**
+     * CODE_128 (最常用的一维码)
+     */
+    public static final DecodeProfile CODE_128_PROFILE = new DecodeProfile(CODE_128_HINTS);
+    /**
+     * QR_CODE (最常用的二维码)
+     */
+    public static final DecodeProfile QR_CODE_PROFILE = new DecodeProfile(QR_CODE_HINTS);
+    /**
+     * 一维码
+     */
+    public static final DecodeProfile ONE_DIMENSIONAL_PROFILE = new DecodeProfile(ONE_DIMENSIONAL_HINTS);
+    /**
+     * 二维码
+     */
+    public static final DecodeProfile TWO_DIMENSIONAL_PROFILE = new DecodeProfile(TWO_DIMENSIONAL_HINTS);
+    /**
+     * 默认
+     */
+    public static final DecodeProfile DEFAULT_PROFILE = new DecodeProfile(DEFAULT_HINTS);
 
     /**
      * 所有支持的{@link BarcodeFormat}
@@ -179,6 +194,49 @@ public class DecodeFormatManager {
         return hints;
     }
 
+    /**
+     * 支持解码的格式
+     * @param barcodeFormats {@link BarcodeFormat}
+     * @return
+     */
+    public static DecodeProfile createDecodeProfile(@NonNull BarcodeFormat... barcodeFormats){
+        return new DecodeProfile(createDecodeHints(barcodeFormats));
+    }
+
+    /**
+     * 获取解码参数对应的解码配置文件，如果是内置的解码参数则直接返回内置的解码配置文件，否则创建一个新的解码配置文件
+     * @param hints
+     * @return
+     */
+    @NonNull
+    public static DecodeProfile getDecodeProfile(@Nullable Map<DecodeHintType,?> hints){
+        if(hints == null || hints == DEFAULT_HINTS){
+            return DEFAULT_PROFILE;
+        }else if(hints == ALL_HINTS){
+            return ALL_PROFILE;
+        }else if(hints == CODE_128_HINTS){
+            return CODE_128_PROFILE;
+        }else if(hints == QR_CODE_HINTS){
+            return QR_CODE_PROFILE;
+        }else if(hints == ONE_DIMENSIONAL_HINTS){
+            return ONE_DIMENSIONAL_PROFILE;
+        }else if(hints == TWO_DIMENSIONAL_HINTS){
+            return TWO_DIMENSIONAL_PROFILE;
+        }
+        return new DecodeProfile(hints);
+    }
+
+    /**
+     * 创建不可修改的解码参数，用于内置的共享解码参数
+     * @param formats
+     * @return
+     */
+    private static Map<DecodeHintType,Object> createUnmodifiableDecodeHints(List<BarcodeFormat> formats){
+        Map<DecodeHintType,Object> hints = new EnumMap<>(DecodeHintType.class);
+        addDecodeHintTypes(hints, Collections.unmodifiableList(formats));
+        return Collections.unmodifiableMap(hints);
+    }
+
     /**
      *
      * @param hints
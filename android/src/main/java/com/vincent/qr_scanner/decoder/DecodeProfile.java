@@ -0,0 +1,233 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Reader;
+import com.google.zxing.Result;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 解码配置文件：不可变的解码格式及解码参数，每个线程只会创建一次{@link MultiFormatReader}并设置好解码参数，
+ * 解码时不再需要每帧调用{@link MultiFormatReader#setHints(Map)}重建内部的读取器列表，多个分析器之间可以安全的共享
+ *
+ * 内置的一些解码配置文件可参见如下：
+ * @see {@link DecodeFormatManager#DEFAULT_PROFILE}
+ * @see {@link DecodeFormatManager#ALL_PROFILE}
+ * @see {@link DecodeFormatManager#QR_CODE_PROFILE}
+ * @see {@link DecodeFormatManager#ONE_DIMENSIONAL_PROFILE}
+ * @see {@link DecodeFormatManager#TWO_DIMENSIONAL_PROFILE}
+ *
+ * 如果不满足您也可以通过{@link DecodeFormatManager#createDecodeProfile(BarcodeFormat...)}自己配置支持的格式
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/05 09:40
+ */
+public final class DecodeProfile {
+
+    private final Map<DecodeHintType, Object> hints;
+    private final Map<DecodeHintType, Object> fastHints;
+    private final Set<BarcodeFormat> formats;
+    private final ThreadLocal<MultiFormatReader> reader;
+    private final ThreadLocal<MultiFormatReader> fastReader;
+    private final Reader profileReader = new ProfileReader(true);
+    private final Reader fastProfileReader = new ProfileReader(false);
+
+    /**
+     * @param hints 解码参数，会复制一份，之后再修改{@code hints}不会影响此配置文件
+     */
+    public DecodeProfile(@NonNull Map<DecodeHintType, ?> hints) {
+        Map<DecodeHintType, Object> map = new EnumMap<>(DecodeHintType.class);
+        map.putAll(hints);
+        Set<BarcodeFormat> formats = EnumSet.noneOf(BarcodeFormat.class);
+        Object possibleFormats = map.get(DecodeHintType.POSSIBLE_FORMATS);
+        if (possibleFormats instanceof Collection) {
+            for (Object format : (Collection<?>) possibleFormats) {
+                if (format instanceof BarcodeFormat) {
+                    formats.add((BarcodeFormat) format);
+                }
+            }
+            map.put(DecodeHintType.POSSIBLE_FORMATS, Collections.unmodifiableList(new ArrayList<>(formats)));
+        }
+        this.hints = Collections.unmodifiableMap(map);
+        this.formats = Collections.unmodifiableSet(formats);
+        if (map.containsKey(DecodeHintType.TRY_HARDER)) {
+            //ZXing只判断是否包含TRY_HARDER，所以需要移除，而不是设置为false
+            Map<DecodeHintType, Object> fastMap = new EnumMap<>(map);
+            fastMap.remove(DecodeHintType.TRY_HARDER);
+            this.fastHints = Collections.unmodifiableMap(fastMap);
+            this.fastReader = createReader(fastHints);
+        } else {
+            this.fastHints = this.hints;
+            this.fastReader = null;
+        }
+        this.reader = createReader(this.hints);
+    }
+
+    private static ThreadLocal<MultiFormatReader> createReader(final Map<DecodeHintType, Object> hints) {
+        return new ThreadLocal<MultiFormatReader>() {
+            @Override
+            protected MultiFormatReader initialValue() {
+                MultiFormatReader reader = new MultiFormatReader();
+                reader.setHints(hints);
+                return reader;
+            }
+        };
+    }
+
+    /**
+     * 解码参数（不可修改）
+     * @return
+     */
+    @NonNull
+    public Map<DecodeHintType, Object> getHints() {
+        return hints;
+    }
+
+    /**
+     * 快速解码参数（不可修改）：去掉了{@link DecodeHintType#TRY_HARDER}，一维码只扫描少量的行，二维码定位时会跳过更多的行
+     * @return
+     */
+    @NonNull
+    public Map<DecodeHintType, Object> getFastHints() {
+        return fastHints;
+    }
+
+    /**
+     * 支持解码的格式（不可修改），为空时表示支持{@link MultiFormatReader}默认支持的所有格式
+     * @return
+     */
+    @NonNull
+    public Set<BarcodeFormat> getFormats() {
+        return formats;
+    }
+
+    /**
+     * 创建只支持部分格式的配置文件，其它解码参数保持不变
+     * @param formats 需要保留的格式
+     * @return 此配置文件支持的格式与{@code formats}的交集，交集为空时返回{@code null}
+     */
+    @Nullable
+    public DecodeProfile subset(@NonNull Collection<BarcodeFormat> formats) {
+        Set<BarcodeFormat> subset = EnumSet.noneOf(BarcodeFormat.class);
+        for (BarcodeFormat format : formats) {
+            //为空时表示支持所有格式
+            if (this.formats.isEmpty() || this.formats.contains(format)) {
+                subset.add(format);
+            }
+        }
+        if (subset.isEmpty()) {
+            return null;
+        }
+        Map<DecodeHintType, Object> map = new EnumMap<>(hints);
+        map.put(DecodeHintType.POSSIBLE_FORMATS, new ArrayList<>(subset));
+        return new DecodeProfile(map);
+    }
+
+    /**
+     * 使用当前线程的{@link MultiFormatReader}进行解码
+     * @param bitmap
+     * @return
+     * @throws NotFoundException
+     */
+    @NonNull
+    public Result decode(@NonNull BinaryBitmap bitmap) throws NotFoundException {
+        return decode(bitmap, true);
+    }
+
+    /**
+     * 使用当前线程的{@link MultiFormatReader}进行解码
+     * @param bitmap
+     * @param tryHarder 为{@code true}时使用{@link #getHints()}，否则使用{@link #getFastHints()}
+     * @return
+     * @throws NotFoundException
+     */
+    @NonNull
+    public Result decode(@NonNull BinaryBitmap bitmap, boolean tryHarder) throws NotFoundException {
+        MultiFormatReader reader = (tryHarder || fastReader == null ? this.reader : fastReader).get();
+        try {
+            return reader.decodeWithState(bitmap);
+        } finally {
+            reader.reset();
+        }
+    }
+
+    /**
+     * 获取基于此配置文件的{@link Reader}，可以在多个线程中共享，解码时会忽略传入的解码参数，
+     * 主要用于包装成{@link com.google.zxing.multi.GenericMultipleBarcodeReader}等需要{@link Reader}的场景
+     * @return
+     */
+    @NonNull
+    public Reader getReader() {
+        return profileReader;
+    }
+
+    /**
+     * 获取基于此配置文件的{@link Reader}
+     * @param tryHarder 为{@code true}时使用{@link #getHints()}，否则使用{@link #getFastHints()}
+     * @return
+     * @see #getReader()
+     */
+    @NonNull
+    public Reader getReader(boolean tryHarder) {
+        return tryHarder ? profileReader : fastProfileReader;
+    }
+
+    private final class ProfileReader implements Reader {
+        private final boolean tryHarder;
+
+        ProfileReader(boolean tryHarder) {
+            this.tryHarder = tryHarder;
+        }
+
+        @Override
+        public Result decode(BinaryBitmap image) throws NotFoundException {
+            return DecodeProfile.this.decode(image, tryHarder);
+        }
+
+        @Override
+        public Result decode(BinaryBitmap image, Map<DecodeHintType, ?> hints) throws NotFoundException {
+            return DecodeProfile.this.decode(image, tryHarder);
+        }
+
+        @Override
+        public void reset() {
+            //每次解码后都会重置，无需处理
+        }
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DecodeProfile)) {
+            return false;
+        }
+        return hints.equals(((DecodeProfile) o).hints);
+    }
+
+    @Override
+    public int hashCode() {
+        return hints.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DecodeProfile{" +
+                "hints=" + hints +
+                '}';
+    }
+}
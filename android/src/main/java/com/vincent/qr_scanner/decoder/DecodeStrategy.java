@@ -0,0 +1,177 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 解码策略：由亮度源的变换方式和二值化方式组成，分析器会根据{@link DecodeConfig}生成一组解码策略，并依次尝试
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/03 10:26
+ */
+public final class DecodeStrategy {
+
+    /**
+     * 亮度源的变换方式
+     */
+    public enum Transform {
+        /**
+         * 不变换
+         */
+        NONE,
+        /**
+         * 旋转90度，用于识别垂直的条码
+         */
+        ROTATE,
+        /**
+         * 反色，用于识别黑白颜色反转的码
+         */
+        INVERT,
+        /**
+         * 镜像，用于识别镜像的码
+         */
+        MIRROR
+    }
+
+    /**
+     * 二值化方式
+     */
+    public enum BinarizerType {
+        /**
+         * {@link HybridBinarizer}
+         */
+        HYBRID,
+        /**
+         * {@link GlobalHistogramBinarizer}
+         */
+        GLOBAL_HISTOGRAM,
+        /**
+         * {@link AdaptiveBinarizer}
+         */
+        ADAPTIVE
+    }
+
+    private final Transform transform;
+    private final BinarizerType binarizerType;
+
+    public DecodeStrategy(@NonNull Transform transform, @NonNull BinarizerType binarizerType) {
+        this.transform = transform;
+        this.binarizerType = binarizerType;
+    }
+
+    @NonNull
+    public Transform getTransform() {
+        return transform;
+    }
+
+    @NonNull
+    public BinarizerType getBinarizerType() {
+        return binarizerType;
+    }
+
+    /**
+     * 对分析区域进行变换，返回的是基于分析区域的视图，不会复制数据
+     * @param source 分析区域
+     * @return
+     */
+    @NonNull
+    public LuminanceSource transform(@NonNull LuminanceSource source) {
+        switch (transform) {
+            case ROTATE:
+                return new RotateLuminanceSource(source, 90);
+            case INVERT:
+                return new InvertLuminanceSource(source);
+            case MIRROR:
+                return new MirrorLuminanceSource(source);
+            default:
+                return source;
+        }
+    }
+
+    /**
+     * 创建二值化器：使用可复用缓冲区的二值化器，输出矩阵会在当前线程的下一次二值化时被覆盖
+     * @param source
+     * @return
+     */
+    @NonNull
+    public Binarizer createBinarizer(@NonNull LuminanceSource source) {
+        switch (binarizerType) {
+            case GLOBAL_HISTOGRAM:
+                return new ReusableGlobalHistogramBinarizer(source);
+            case ADAPTIVE:
+                return new AdaptiveBinarizer(source);
+            default:
+                return new ReusableHybridBinarizer(source);
+        }
+    }
+
+    /**
+     * 根据解码配置生成需要依次尝试的解码策略
+     * @param config
+     * @return
+     */
+    @NonNull
+    public static List<DecodeStrategy> createStrategies(@Nullable DecodeConfig config) {
+        List<DecodeStrategy> list = new ArrayList<>();
+        if (config == null) {
+            addStrategies(list, Transform.NONE, true, false);
+        } else {
+            boolean isAdaptiveBinarizer = config.isSupportAdaptiveBinarizer();
+            addStrategies(list, Transform.NONE, config.isMultiDecode(), isAdaptiveBinarizer);
+            if (config.isSupportVerticalCode()) {
+                addStrategies(list, Transform.ROTATE, config.isSupportVerticalCodeMultiDecode(), isAdaptiveBinarizer);
+            }
+            if (config.isSupportLuminanceInvert()) {
+                addStrategies(list, Transform.INVERT, config.isSupportLuminanceInvertMultiDecode(), isAdaptiveBinarizer);
+            }
+            if (config.isSupportMirrorCode()) {
+                addStrategies(list, Transform.MIRROR, config.isSupportMirrorCodeMultiDecode(), isAdaptiveBinarizer);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private static void addStrategies(List<DecodeStrategy> list, Transform transform, boolean isMultiDecode, boolean isAdaptiveBinarizer) {
+        //先采用HybridBinarizer解析
+        list.add(new DecodeStrategy(transform, BinarizerType.HYBRID));
+        if (isMultiDecode) {
+            //如果没有解析成功，再采用GlobalHistogramBinarizer解析一次
+            list.add(new DecodeStrategy(transform, BinarizerType.GLOBAL_HISTOGRAM));
+        }
+        if (isAdaptiveBinarizer) {
+            //光线较暗或明暗不均时，最后再采用AdaptiveBinarizer解析一次
+            list.add(new DecodeStrategy(transform, BinarizerType.ADAPTIVE));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DecodeStrategy)) {
+            return false;
+        }
+        DecodeStrategy that = (DecodeStrategy) o;
+        return transform == that.transform && binarizerType == that.binarizerType;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * transform.hashCode() + binarizerType.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return transform + "/" + binarizerType;
+    }
+}
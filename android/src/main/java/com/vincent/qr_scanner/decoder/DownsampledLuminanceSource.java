@@ -0,0 +1,132 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.ResultPoint;
+
+/**
+ * 缩小亮度源：将{@link #getDelegate()}按整数倍缩小后的一层图像金字塔，每个像素为原图中对应方块的平均亮度
+ *
+ * 与其它的变换亮度源不同，缩小后的数据在创建时就会逐行读取原图计算好，
+ * 后续二值化时直接读取，像素数只有原图的1/(倍数的平方)，二值化和定位的耗时也会相应减少；
+ * 通过{@link #create(LuminanceSource, int)}创建时，缩小后的数据保存在当前线程的{@link BinarizerBuffers}中，
+ * 每帧解码时不再重复分配，同一线程中下一次创建时会被覆盖，所以只在当前这一轮解码中使用
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/08 16:40
+ */
+public final class DownsampledLuminanceSource extends TransformLuminanceSource {
+
+    /**
+     * 缩小后的最小边长，再小的话大部分码的模块都无法分辨
+     */
+    static final int MIN_SIZE = 100;
+
+    private final int factor;
+    private final byte[] matrix;
+
+    /**
+     *
+     * @param delegate 被缩小的亮度源
+     * @param factor 缩小的倍数
+     */
+    public DownsampledLuminanceSource(@NonNull LuminanceSource delegate, int factor) {
+        this(delegate, factor, null);
+    }
+
+    /**
+     *
+     * @param delegate 被缩小的亮度源
+     * @param factor 缩小的倍数
+     * @param buffers 不为空时，缩小后的数据写入其中复用的数组
+     */
+    private DownsampledLuminanceSource(@NonNull LuminanceSource delegate, int factor, @Nullable BinarizerBuffers buffers) {
+        super(delegate, delegate.getWidth() / factor, delegate.getHeight() / factor);
+        if (factor < 1 || getWidth() < 1 || getHeight() < 1) {
+            throw new IllegalArgumentException("Unsupported downsample factor: " + factor);
+        }
+        this.factor = factor;
+        int size = getWidth() * getHeight();
+        this.matrix = buffers != null ? buffers.getDownsampled(size) : new byte[size];
+        downsample(delegate, factor, getWidth(), getHeight(), matrix, buffers != null ? buffers : BinarizerBuffers.get());
+    }
+
+    /**
+     * 创建缩小的亮度源，缩小后的数据保存在当前线程复用的数组中，用于每帧的金字塔解码
+     * @param source 被缩小的亮度源
+     * @param factor 缩小的倍数
+     * @return 缩小后的边长小于{@link #MIN_SIZE}时返回{@code null}
+     */
+    @Nullable
+    public static DownsampledLuminanceSource create(@NonNull LuminanceSource source, int factor) {
+        if (factor < 2 || Math.min(source.getWidth(), source.getHeight()) / factor < MIN_SIZE) {
+            return null;
+        }
+        return new DownsampledLuminanceSource(source, factor, BinarizerBuffers.get());
+    }
+
+    private static void downsample(LuminanceSource source, int factor, int width, int height, byte[] matrix, BinarizerBuffers buffers) {
+        int[] sums = buffers.clearDownsampleSums(width);
+        byte[] row = buffers.getRow(source.getWidth());
+        int area = factor * factor;
+        for (int y = 0; y < height; y++) {
+            for (int i = 0; i < factor; i++) {
+                row = source.getRow(y * factor + i, row);
+                for (int x = 0, offset = 0; x < width; x++) {
+                    int sum = 0;
+                    for (int end = offset + factor; offset < end; offset++) {
+                        sum += row[offset] & 0xFF;
+                    }
+                    sums[x] += sum;
+                }
+            }
+            for (int x = 0, offset = y * width; x < width; x++, offset++) {
+                matrix[offset] = (byte) (sums[x] / area);
+                sums[x] = 0;
+            }
+        }
+    }
+
+    /**
+     * 缩小的倍数
+     * @return
+     */
+    public int getFactor() {
+        return factor;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        System.arraycopy(matrix, y * width, row, 0, width);
+        return row;
+    }
+
+    /**
+     * 缩小后的数据，不复制，前{@code width * height}个元素有效
+     */
+    byte[] getLuminances() {
+        return matrix;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        if (matrix.length == getWidth() * getHeight()) {
+            return matrix;
+        }
+        return super.getMatrix();
+    }
+
+    @NonNull
+    @Override
+    public ResultPoint toDelegatePoint(@NonNull ResultPoint point) {
+        //映射到原图中对应方块的中心
+        float offset = (factor - 1) / 2f;
+        return new ResultPoint(point.getX() * factor + offset, point.getY() * factor + offset);
+    }
+}
@@ -0,0 +1,178 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Result;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 格式学习器：不确定需要识别哪种格式时一般会使用{@link DecodeFormatManager#ALL_HINTS}，每一帧都要尝试所有的读取器；
+ * 实际扫码时往往只会遇到其中的一两种格式，学习器记录本次会话中识别到的格式，累计识别成功{@link #getLearningThreshold()}次后，
+ * 只使用识别到过的格式进行解码，每一帧的耗时接近只识别单一格式
+ *
+ * 收窄后每隔{@link #getProbeInterval()}帧仍会使用完整的格式探测一次，探测到新的格式时加入到收窄的格式中；
+ * 收窄后连续{@link #getMissThreshold()}帧识别失败（不含探测帧）时，认为扫码的对象发生了变化，恢复使用完整的格式并重新学习
+ *
+ * 主要在分析线程中调用，非线程安全
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/15 14:30
+ */
+public class FormatLearner {
+
+    /**
+     * 默认收窄前需要识别成功的次数
+     */
+    public static final int DEFAULT_LEARNING_THRESHOLD = 3;
+    /**
+     * 默认使用完整格式探测的间隔帧数
+     */
+    public static final int DEFAULT_PROBE_INTERVAL = 15;
+    /**
+     * 默认恢复完整格式前连续识别失败的帧数
+     */
+    public static final int DEFAULT_MISS_THRESHOLD = 30;
+
+    private final DecodeProfile fullProfile;
+    private final int learningThreshold;
+    private final int probeInterval;
+    private final int missThreshold;
+
+    private final Set<BarcodeFormat> seenFormats = EnumSet.noneOf(BarcodeFormat.class);
+    private int successCount;
+    private DecodeProfile narrowedProfile;
+    private long frameCount;
+    private boolean isProbing;
+    private int missCount;
+
+    public FormatLearner(@NonNull DecodeProfile fullProfile) {
+        this(fullProfile, DEFAULT_LEARNING_THRESHOLD, DEFAULT_PROBE_INTERVAL, DEFAULT_MISS_THRESHOLD);
+    }
+
+    /**
+     *
+     * @param fullProfile 完整的解码配置文件
+     * @param learningThreshold 收窄前需要识别成功的次数
+     * @param probeInterval 使用完整格式探测的间隔帧数，小于1时表示不探测
+     * @param missThreshold 恢复完整格式前连续识别失败的帧数，小于1时表示不恢复
+     */
+    public FormatLearner(@NonNull DecodeProfile fullProfile, int learningThreshold, int probeInterval, int missThreshold) {
+        this.fullProfile = fullProfile;
+        this.learningThreshold = Math.max(1, learningThreshold);
+        this.probeInterval = probeInterval;
+        this.missThreshold = missThreshold;
+    }
+
+    /**
+     * 获取当前帧需要使用的解码配置文件，每帧调用一次，解码完成后需调用{@link #onDecoded(Result)}或{@link #onDecoded(List)}
+     * @return
+     */
+    @NonNull
+    public DecodeProfile nextProfile() {
+        if (narrowedProfile == null) {
+            isProbing = false;
+            return fullProfile;
+        }
+        isProbing = probeInterval > 0 && ++frameCount % probeInterval == 0;
+        return isProbing ? fullProfile : narrowedProfile;
+    }
+
+    /**
+     * 当前帧解码完成
+     * @param result 识别结果，识别失败时为{@code null}
+     */
+    public void onDecoded(@Nullable Result result) {
+        onDecoded(result != null ? Collections.singletonList(result) : Collections.<Result>emptyList());
+    }
+
+    /**
+     * 当前帧解码完成，一帧中识别到多个码时（如：{@link MultiCodeAnalyzer}），会学习所有结果的格式，计为一次识别成功
+     * @param results 识别结果，识别失败时为空
+     */
+    public void onDecoded(@NonNull List<Result> results) {
+        if (!results.isEmpty()) {
+            missCount = 0;
+            boolean isNewFormat = false;
+            for (Result result : results) {
+                isNewFormat |= seenFormats.add(result.getBarcodeFormat());
+            }
+            if (narrowedProfile == null) {
+                if (++successCount >= learningThreshold) {
+                    narrowedProfile = fullProfile.subset(seenFormats);
+                    frameCount = 0;
+                }
+            } else if (isNewFormat) {
+                //探测到新的格式
+                narrowedProfile = fullProfile.subset(seenFormats);
+            }
+        } else if (narrowedProfile != null && !isProbing && missThreshold > 0 && ++missCount >= missThreshold) {
+            reset();
+        }
+    }
+
+    /**
+     * 重置状态，恢复使用完整的格式并重新学习
+     */
+    public void reset() {
+        seenFormats.clear();
+        successCount = 0;
+        narrowedProfile = null;
+        frameCount = 0;
+        isProbing = false;
+        missCount = 0;
+    }
+
+    /**
+     * 是否已收窄
+     * @return
+     */
+    public boolean isNarrowed() {
+        return narrowedProfile != null;
+    }
+
+    /**
+     * 本次会话中识别到过的格式（不可修改）
+     * @return
+     */
+    @NonNull
+    public Set<BarcodeFormat> getSeenFormats() {
+        return Collections.unmodifiableSet(seenFormats);
+    }
+
+    /**
+     * 完整的解码配置文件
+     * @return
+     */
+    @NonNull
+    public DecodeProfile getFullProfile() {
+        return fullProfile;
+    }
+
+    public int getLearningThreshold() {
+        return learningThreshold;
+    }
+
+    public int getProbeInterval() {
+        return probeInterval;
+    }
+
+    public int getMissThreshold() {
+        return missThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return "FormatLearner{" +
+                "seenFormats=" + seenFormats +
+                ", successCount=" + successCount +
+                ", isNarrowed=" + isNarrowed() +
+                ", missCount=" + missCount +
+                '}';
+    }
+}
@@ -0,0 +1,166 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * 帧差门控：记录上一次解码失败时分析区域的缩略签名，新的一帧与其几乎没有差异时直接跳过解码，
+ * 避免摄像头对着没有条码的静止场景时，每秒数十次重复解码相同的画面
+ *
+ * 签名为分析区域缩小到{@link #SIGNATURE_SIZE}x{@link #SIGNATURE_SIZE}后的平均亮度，每个格子只采样一行；
+ * 只与上一次解码失败的帧比较而不是与上一帧比较，缓慢的变化累积起来同样会触发解码；
+ * 为了避免一直跳过，距离上一次解码超过{@link #getForceDecodeInterval()}帧时会强制解码一次
+ *
+ * 主要在分析线程中调用，非线程安全
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/08 10:05
+ */
+public class FrameDifferenceGate {
+
+    /**
+     * 默认的差异阈值：签名中每个格子的平均亮度差
+     */
+    public static final float DEFAULT_THRESHOLD = 3f;
+    /**
+     * 默认强制解码的间隔帧数
+     */
+    public static final int DEFAULT_FORCE_DECODE_INTERVAL = 15;
+    /**
+     * 签名的边长
+     */
+    static final int SIGNATURE_SIZE = 16;
+
+    private final float threshold;
+    private final int forceDecodeInterval;
+
+    private int[] signature = new int[SIGNATURE_SIZE * SIGNATURE_SIZE];
+    private int[] lastFailedSignature = new int[SIGNATURE_SIZE * SIGNATURE_SIZE];
+    private boolean hasLastFailedSignature;
+    private float lastDifference;
+    private int skippedCount;
+
+    public FrameDifferenceGate() {
+        this(DEFAULT_THRESHOLD, DEFAULT_FORCE_DECODE_INTERVAL);
+    }
+
+    /**
+     *
+     * @param threshold 差异阈值，差异小于此值时跳过解码
+     * @param forceDecodeInterval 强制解码的间隔帧数
+     */
+    public FrameDifferenceGate(float threshold, int forceDecodeInterval) {
+        this.threshold = threshold;
+        this.forceDecodeInterval = forceDecodeInterval;
+    }
+
+    /**
+     * 计算分析区域的签名
+     * @param source 分析区域
+     * @param signature 签名，长度为{@link #SIGNATURE_SIZE}的平方
+     */
+    static void computeSignature(@NonNull LuminanceSource source, @NonNull int[] signature) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        byte[] row = new byte[width];
+        for (int cy = 0; cy < SIGNATURE_SIZE; cy++) {
+            //每个格子只采样中间的一行
+            int y = Math.min(height - 1, (2 * cy + 1) * height / (2 * SIGNATURE_SIZE));
+            row = source.getRow(y, row);
+            for (int cx = 0; cx < SIGNATURE_SIZE; cx++) {
+                int start = cx * width / SIGNATURE_SIZE;
+                int end = Math.max(start + 1, (cx + 1) * width / SIGNATURE_SIZE);
+                int sum = 0;
+                for (int x = start; x < end && x < width; x++) {
+                    sum += row[x] & 0xFF;
+                }
+                signature[cy * SIGNATURE_SIZE + cx] = sum / (end - start);
+            }
+        }
+    }
+
+    /**
+     * 判断当前帧是否需要解码，需要解码时，解码完成后需调用{@link #onDecoded(boolean)}
+     * @param source 分析区域
+     * @return {@code true}表示需要解码；{@code false}表示与上一次解码失败的帧几乎相同，直接跳过
+     */
+    public boolean shouldDecode(@NonNull LuminanceSource source) {
+        computeSignature(source, signature);
+        if (!hasLastFailedSignature) {
+            lastDifference = Float.MAX_VALUE;
+            return true;
+        }
+        long sum = 0;
+        for (int i = 0; i < signature.length; i++) {
+            sum += Math.abs(signature[i] - lastFailedSignature[i]);
+        }
+        lastDifference = (float) sum / signature.length;
+        if (lastDifference < threshold && skippedCount < forceDecodeInterval) {
+            skippedCount++;
+            return false;
+        }
+        //放行时就重新计数，后续的门控（如：模糊帧过滤）拒绝这一帧时不会调用onDecoded，否则之后的帧都会被强制解码
+        skippedCount = 0;
+        return true;
+    }
+
+    /**
+     * 解码完成后调用
+     * @param success 是否解码成功
+     */
+    public void onDecoded(boolean success) {
+        skippedCount = 0;
+        if (success) {
+            hasLastFailedSignature = false;
+            return;
+        }
+        //交换缓冲区，记录当前帧的签名
+        int[] temp = lastFailedSignature;
+        lastFailedSignature = signature;
+        signature = temp;
+        hasLastFailedSignature = true;
+    }
+
+    /**
+     * 差异阈值
+     * @return
+     */
+    public float getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * 强制解码的间隔帧数
+     * @return
+     */
+    public int getForceDecodeInterval() {
+        return forceDecodeInterval;
+    }
+
+    /**
+     * 最近一帧与上一次解码失败的帧之间的差异
+     * @return
+     */
+    public float getLastDifference() {
+        return lastDifference;
+    }
+
+    /**
+     * 重置状态，开始新的扫码过程
+     */
+    public void reset() {
+        hasLastFailedSignature = false;
+        lastDifference = 0;
+        skippedCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameDifferenceGate{" +
+                "threshold=" + threshold +
+                ", forceDecodeInterval=" + forceDecodeInterval +
+                ", lastDifference=" + lastDifference +
+                '}';
+    }
+}
@@ -8,10 +8,9 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.camera.core.ImageProxy;
 
+import com.google.zxing.LuminanceSource;
 import com.google.zxing.Result;
 
-import java.nio.ByteBuffer;
-
 /**
  * 图像分析器
  * @Author: Vincent
@@ -27,25 +26,64 @@ public abstract class ImageAnalyzer {
     @Nullable
     public abstract Result analyze(byte[] data, int width, int height);
 
+    /**
+     * 分析亮度源，默认会将亮度源转换成图像数据后再通过{@link #analyze(byte[], int, int)}进行分析，
+     * 子类可重写此方法直接对亮度源进行分析，避免复制整帧数据
+     * @param source
+     * @return
+     */
+    @Nullable
+    public Result analyze(@NonNull LuminanceSource source) {
+        return analyze(source.getMatrix(), source.getWidth(), source.getHeight());
+    }
+
+    /**
+     * 分析亮度源中所有的码，默认只返回{@link #analyze(LuminanceSource)}的结果，
+     * 支持同时识别多个码的分析器（如：{@link MultiCodeAnalyzer}）会重写此方法
+     * @param source
+     * @return 没有识别到时为{@code null}
+     */
+    @Nullable
+    public Result[] analyzeMultiple(@NonNull LuminanceSource source) {
+        Result result = analyze(source);
+        return result != null ? new Result[]{result} : null;
+    }
+
     public Result analyze(@NonNull ImageProxy image, int orientation) {
+        return analyzeImage(image,orientation,this::analyze);
+    }
+
+    /**
+     * 分析图像中所有的码
+     * @param image
+     * @param orientation
+     * @return 没有识别到时为{@code null}
+     */
+    @Nullable
+    public Result[] analyzeMultiple(@NonNull ImageProxy image, int orientation) {
+        return analyzeImage(image,orientation,this::analyzeMultiple);
+    }
+
+    private <T> T analyzeImage(@NonNull ImageProxy image, int orientation, @NonNull SourceAnalyzer<T> analyzer) {
         if(image.getFormat() == ImageFormat.YUV_420_888){
             @SuppressLint("UnsafeExperimentalUsageError")
-            ByteBuffer buffer = image.getPlanes()[0].getBuffer();
-            byte[] data = new byte[buffer.remaining()];
-            buffer.get(data);
-            int width = image.getWidth();
-            int height = image.getHeight();
-            if(orientation == Configuration.ORIENTATION_PORTRAIT){
-                byte[] rotatedData = new byte[data.length];
-                for (int y = 0; y < height; y++) {
-                    for (int x = 0; x < width; x++){
-                        rotatedData[x * height + height - y - 1] = data[x + y * width];
-                    }
+            ImageProxy.PlaneProxy plane = image.getPlanes()[0];
+            //直接读取Y平面数据，不复制整帧数据
+            PlaneLuminanceSource source = new PlaneLuminanceSource(plane.getBuffer(),plane.getRowStride(),plane.getPixelStride(),image.getWidth(),image.getHeight());
+            try{
+                if(orientation == Configuration.ORIENTATION_PORTRAIT){
+                    //竖屏时顺时针旋转90度，只映射坐标，不生成旋转后的图像数据
+                    return analyzer.analyze(new RotateLuminanceSource(source,90));
                 }
-                return analyze(rotatedData, height, width);
+                return analyzer.analyze(source);
+            }finally {
+                source.release();
             }
-            return analyze(data, width, height);
         }
         return null;
     }
+
+    private interface SourceAnalyzer<T> {
+        T analyze(@NonNull LuminanceSource source);
+    }
 }
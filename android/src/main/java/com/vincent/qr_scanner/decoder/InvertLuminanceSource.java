@@ -0,0 +1,51 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.ResultPoint;
+
+/**
+ * 反色亮度源：读取时才对每一行进行反色，用于识别黑白颜色反转的码
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/02 14:42
+ */
+public class InvertLuminanceSource extends TransformLuminanceSource {
+
+    public InvertLuminanceSource(@NonNull LuminanceSource delegate) {
+        super(delegate, delegate.getWidth(), delegate.getHeight());
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        row = getDelegateRow(y, row);
+        for (int x = 0; x < width; x++) {
+            row[x] = (byte) (255 - (row[x] & 0xFF));
+        }
+        return row;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        if (delegate.isCropSupported()) {
+            return new InvertLuminanceSource(delegate.crop(left, top, width, height));
+        }
+        return super.crop(left, top, width, height);
+    }
+
+    @Override
+    public LuminanceSource invert() {
+        return delegate;
+    }
+
+    @NonNull
+    @Override
+    public ResultPoint toDelegatePoint(@NonNull ResultPoint point) {
+        return point;
+    }
+}
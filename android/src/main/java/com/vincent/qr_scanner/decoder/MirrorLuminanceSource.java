@@ -0,0 +1,48 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.ResultPoint;
+
+/**
+ * 镜像亮度源：读取时才对每一行进行水平翻转，用于识别镜像的码（如前置摄像头、透过玻璃背面扫码）
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/02 14:48
+ */
+public class MirrorLuminanceSource extends TransformLuminanceSource {
+
+    public MirrorLuminanceSource(@NonNull LuminanceSource delegate) {
+        super(delegate, delegate.getWidth(), delegate.getHeight());
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        row = getDelegateRow(y, row);
+        for (int i = 0, j = width - 1; i < j; i++, j--) {
+            byte temp = row[i];
+            row[i] = row[j];
+            row[j] = temp;
+        }
+        return row;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        if (delegate.isCropSupported()) {
+            return new MirrorLuminanceSource(delegate.crop(getWidth() - left - width, top, width, height));
+        }
+        return super.crop(left, top, width, height);
+    }
+
+    @NonNull
+    @Override
+    public ResultPoint toDelegatePoint(@NonNull ResultPoint point) {
+        return new ResultPoint(getWidth() - 1 - point.getX(), point.getY());
+    }
+}
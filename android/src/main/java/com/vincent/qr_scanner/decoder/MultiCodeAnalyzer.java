@@ -0,0 +1,90 @@
+package com.vincent.qr_scanner.decoder;
+
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
+import com.google.zxing.multi.MultipleBarcodeReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多码解析器：通过{@link #analyzeMultiple(LuminanceSource)}识别一帧中所有的码，适用于画面中同时有多个码的场景（如：货架）
+ *
+ * 依次尝试解码策略（开启自适应解码策略时按{@link StrategyScheduler}调整后的顺序，并记录每个策略的结果），直到某个解码策略识别到码为止，
+ * 再通过{@link ResultDeduplicator}去掉重复的结果；金字塔解码、候选区域预检测、时域降噪、识别区域跟踪和周期性扫描只用于单码识别，多码识别时不使用；
+ * 调用{@link #analyze(LuminanceSource)}时与{@link MultiFormatAnalyzer}一致，只返回一个结果
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/10 10:30
+ */
+public class MultiCodeAnalyzer extends MultiFormatAnalyzer {
+
+    public MultiCodeAnalyzer(){
+        this((DecodeConfig)null);
+    }
+
+    public MultiCodeAnalyzer(@Nullable Map<DecodeHintType,Object> hints){
+        this(new DecodeConfig().setHints(hints));
+    }
+
+    public MultiCodeAnalyzer(@NonNull DecodeProfile profile){
+        this(new DecodeConfig().setDecodeProfile(profile));
+    }
+
+    public MultiCodeAnalyzer(@Nullable DecodeConfig config) {
+        super(config);
+    }
+
+    @Nullable
+    @Override
+    public Result[] analyzeMultiple(@NonNull LuminanceSource source) {
+        Rect rect = calculateAnalyzeAreaRect(source.getWidth(),source.getHeight());
+        LuminanceSource areaSource = crop(source,rect.left,rect.top,rect.width(),rect.height());
+        if(!shouldDecode(areaSource)){
+            return null;
+        }
+        areaSource = enhance(areaSource);
+        onFrame();
+        applyLearnedProfile();
+        List<Result> results = new ArrayList<>();
+        //开启分级解码时，多码识别只使用快速解码
+        MultipleBarcodeReader reader = new GenericMultipleBarcodeReader(mDecodeProfile.getReader(!isTieredDecode));
+        List<DecodeStrategy> strategies = mStrategyScheduler != null ? mStrategyScheduler.nextStrategies() : mStrategies;
+        for(DecodeStrategy strategy : strategies){
+            long start = System.nanoTime();
+            try{
+                LuminanceSource view = strategy.transform(areaSource);
+                for(Result result : reader.decodeMultiple(new BinaryBitmap(strategy.createBinarizer(view)))){
+                    results.add(TransformLuminanceSource.toSourceResult(result,view,areaSource));
+                }
+            }catch (Exception e){
+
+            }
+            if(mStrategyScheduler != null){
+                mStrategyScheduler.record(strategy,!results.isEmpty(),System.nanoTime() - start);
+            }
+            if(!results.isEmpty()){
+                break;
+            }
+        }
+        onDecoded(!results.isEmpty());
+        if(mFormatLearner != null){
+            //学习所有结果的格式，否则收窄后只会识别第一个结果的格式
+            mFormatLearner.onDecoded(results);
+        }
+        if(results.isEmpty()){
+            return null;
+        }
+        List<Result> list = ResultDeduplicator.deduplicate(results);
+        return list.toArray(new Result[0]);
+    }
+}
@@ -0,0 +1,257 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.ReaderException;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.oned.MultiFormatOneDReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一维码解析器：一维码只需要几条扫描线就能识别，不需要对整个分析区域进行二值化，
+ * 直接从亮度源中按{@link DecodeConfig#getScanLineCount()}采样若干行，逐行二值化后交给{@link MultiFormatOneDReader}识别，适用于只识别一维码的场景（如：流水线）
+ *
+ * 扫描线从分析区域的中心开始，向上下两侧交替展开，每条扫描线会正反各识别一次；
+ * 通过{@link DecodeConfig#setSupportVerticalCode(boolean)}开启竖码识别时，水平扫描线识别失败后再按列扫描；
+ * 通过{@link DecodeConfig#setAngledScanLine(boolean)}开启多角度扫描时，最后再每隔{@link DecodeConfig#getScanAngleStep()}度扫描一组倾斜的扫描线，
+ * 倾斜的扫描线由{@link ScanLineTable}按预先计算的偏移表直接采样，不需要旋转图像
+ *
+ * 只会识别{@link DecodeProfile#getFormats()}中的一维码格式，解码策略、金字塔解码和分级解码对此解析器无效；
+ * 裁剪、门控、对比度增强、时域降噪、候选区域预检测和识别区域跟踪与{@link MultiFormatAnalyzer}一致
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/14 14:30
+ */
+public class OneDimensionalAnalyzer extends AreaRectAnalyzer {
+
+    /**
+     * 默认每个方向的扫描线数
+     */
+    public static final int DEFAULT_SCAN_LINE_COUNT = 15;
+    /**
+     * 默认多角度扫描的角度间隔
+     */
+    public static final int DEFAULT_SCAN_ANGLE_STEP = 15;
+
+    private MultiFormatOneDReader mReader;
+    /**
+     * {@link #mReader}对应的解码配置文件，开启格式学习时解码配置文件可能每帧都不同
+     */
+    private DecodeProfile mReaderProfile;
+    private int mScanLineCount = DEFAULT_SCAN_LINE_COUNT;
+    private boolean isVerticalScan;
+    private boolean isAngledScan;
+    /**
+     * 水平扫描线之外需要扫描的角度
+     */
+    private int[] mAngles;
+    /**
+     * 最近一次分析区域尺寸对应的扫描线表
+     */
+    private ScanLineTable mScanLineTable;
+
+    public OneDimensionalAnalyzer(){
+        this(DecodeFormatManager.ONE_DIMENSIONAL_PROFILE);
+    }
+
+    public OneDimensionalAnalyzer(@Nullable Map<DecodeHintType,Object> hints){
+        this(new DecodeConfig().setHints(hints));
+    }
+
+    public OneDimensionalAnalyzer(@NonNull DecodeProfile profile){
+        this(new DecodeConfig().setDecodeProfile(profile));
+    }
+
+    public OneDimensionalAnalyzer(@Nullable DecodeConfig config) {
+        super(config);
+        mReader = new MultiFormatOneDReader(mHints);
+        mReaderProfile = mDecodeProfile;
+        if(config != null){
+            mScanLineCount = Math.max(1,config.getScanLineCount());
+            isVerticalScan = config.isSupportVerticalCode();
+            isAngledScan = config.isAngledScanLine();
+        }
+        mAngles = createAngles(config != null ? Math.max(1,Math.min(90,config.getScanAngleStep())) : DEFAULT_SCAN_ANGLE_STEP);
+    }
+
+    /**
+     * 逐条扫描线识别分析区域，不构建整个分析区域的{@link BinaryBitmap}
+     * @param source 分析区域
+     * @return
+     */
+    @Nullable
+    @Override
+    Result decodeInternal(@NonNull LuminanceSource source){
+        if(mReaderProfile != mDecodeProfile){
+            mReader = new MultiFormatOneDReader(mHints);
+            mReaderProfile = mDecodeProfile;
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        BinarizerBuffers buffers = BinarizerBuffers.get();
+        int step = Math.max(1,height / (mScanLineCount + 1));
+        for(int i = 0; i < mScanLineCount; i++){
+            int y = getScanLine(height,step,i);
+            if(y < 0){
+                break;
+            }
+            byte[] luminances = source.getRow(y,buffers.getRow(width));
+            Result result = decodeLine(buffers,luminances,width,0,y,1,0,0);
+            if(result != null){
+                return result;
+            }
+        }
+        if(mAngles.length == 0){
+            return null;
+        }
+        //其它角度的扫描线按预先计算的偏移表直接从亮度矩阵中采样，不需要旋转图像
+        ScanLineTable table = mScanLineTable;
+        if(table == null || !table.matches(width,height)){
+            table = new ScanLineTable(width,height,mScanLineCount,mAngles);
+            mScanLineTable = table;
+        }
+        byte[] matrix = buffers.readLuminances(source);
+        byte[] luminances = buffers.getRow(Math.max(width,height));
+        for(int i = 0; i < mAngles.length; i++){
+            for(int line = 0; line < mScanLineCount; line++){
+                if(table.starts[i][line] < 0){
+                    continue;
+                }
+                int length = table.sample(matrix,i,line,luminances);
+                int start = table.starts[i][line];
+                Result result = decodeLine(buffers,luminances,length,start % width,start / width,table.stepX[i],table.stepY[i],mAngles[i]);
+                if(result != null){
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 计算水平扫描线之外需要扫描的角度：开启竖码识别时先扫描90°，开启多角度扫描时再按离水平方向由近到远的顺序扫描其它角度
+     * @param angleStep 角度间隔
+     * @return
+     */
+    private int[] createAngles(int angleStep){
+        List<Integer> angles = new ArrayList<>();
+        if(isVerticalScan){
+            angles.add(90);
+        }
+        if(isAngledScan){
+            for(int angle = angleStep; angle <= 90; angle += angleStep){
+                if(angle < 90){
+                    angles.add(angle);
+                    angles.add(180 - angle);
+                }else if(!isVerticalScan){
+                    angles.add(90);
+                }
+            }
+        }
+        int[] array = new int[angles.size()];
+        for(int i = 0; i < array.length; i++){
+            array[i] = angles.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * 获取第{@code index}条扫描线的位置：从中心开始，向两侧交替展开
+     * @param size 扫描方向上的长度
+     * @param step 扫描线的间距
+     * @param index
+     * @return 超出范围时返回-1
+     */
+    private static int getScanLine(int size,int step,int index){
+        int steps = (index + 1) / 2;
+        int position = size / 2 + step * ((index & 0x01) == 0 ? steps : -steps);
+        return position >= 0 && position < size ? position : -1;
+    }
+
+    /**
+     * 二值化一条扫描线并正反各识别一次，识别结果的坐标点会映射回分析区域的坐标系
+     * @param buffers
+     * @param luminances 扫描线上的亮度数据
+     * @param length 扫描线的长度
+     * @param startX 扫描线起点在分析区域中的坐标
+     * @param startY
+     * @param dx 扫描线每一步在分析区域中的偏移
+     * @param dy
+     * @param angle 扫描线的角度
+     * @return
+     */
+    @Nullable
+    private Result decodeLine(@NonNull BinarizerBuffers buffers,@NonNull byte[] luminances,int length,int startX,int startY,float dx,float dy,int angle){
+        BitArray row = buffers.getBitRow(length);
+        row.clear();
+        try{
+            ReusableGlobalHistogramBinarizer.binarizeRow(luminances,length,row,buffers.clearBuckets());
+        }catch (NotFoundException e){
+            //对比度太低，这条扫描线上没有码
+            return null;
+        }
+        for(int attempt = 0; attempt < 2; attempt++){
+            if(attempt == 1){
+                row.reverse();
+            }
+            try{
+                Result result = mReader.decodeRow(startY,row,mHints);
+                return toSourceResult(result,length,startX,startY,dx,dy,angle,attempt == 1);
+            }catch (ReaderException e){
+
+            }finally {
+                mReader.reset();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 将扫描线上的坐标映射回分析区域的坐标系
+     */
+    @NonNull
+    private static Result toSourceResult(@NonNull Result result,int length,int startX,int startY,float dx,float dy,int angle,boolean isReversed){
+        if(angle == 0 && !isReversed){
+            return result;
+        }
+        ResultPoint[] points = result.getResultPoints();
+        if(points != null){
+            points = points.clone();
+            for(int i = 0; i < points.length; i++){
+                if(points[i] != null){
+                    float t = isReversed ? length - points[i].getX() - 1 : points[i].getX();
+                    points[i] = new ResultPoint(startX + t * dx,startY + t * dy);
+                }
+            }
+        }
+        Result mapped = new Result(result.getText(),result.getRawBytes(),result.getNumBits(),points,result.getBarcodeFormat(),result.getTimestamp());
+        mapped.putAllMetadata(result.getResultMetadata());
+        //与OneDReader一致，记录条码相对于正向的旋转角度
+        mapped.putMetadata(ResultMetadataType.ORIENTATION,isReversed ? angle + 180 : angle);
+        return mapped;
+    }
+
+    /**
+     * 按解码策略识别整个分析区域时使用，扫描线识别不会调用
+     */
+    @Nullable
+    @Override
+    Result decode(@NonNull BinaryBitmap bitmap, boolean tryHarder) throws ReaderException {
+        try{
+            return mReader.decode(bitmap,tryHarder ? mHints : mDecodeProfile.getFastHints());
+        }finally {
+            mReader.reset();
+        }
+    }
+}
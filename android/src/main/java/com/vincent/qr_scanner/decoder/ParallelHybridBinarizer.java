@@ -0,0 +1,251 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 并行混合二值化器：结果与{@link HybridBinarizer}一致，适用于较大的图片（如：相册中的原图）
+ *
+ * 将图像按块行切分成若干条带，在{@link DecodeExecutor}中并行统计每个块的亮度，以及按块阈值输出二值化矩阵，
+ * 只有依赖相邻块的阈值修正需要按顺序计算，计算量只有像素数的1/64；
+ * 内层循环只操作基本类型数组，没有分支和方法调用（每32个像素拼成一个字后整行写入），便于JIT进行向量化优化
+ *
+ * 在{@link DecodeExecutor}的线程中调用时不会再提交任务，直接在当前线程依次计算所有条带
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/12 15:10
+ */
+public final class ParallelHybridBinarizer extends GlobalHistogramBinarizer {
+
+    private static final int BLOCK_SIZE_POWER = 3;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SIZE_POWER;
+    private static final int BLOCK_SIZE_MASK = BLOCK_SIZE - 1;
+    private static final int MINIMUM_DIMENSION = BLOCK_SIZE * 5;
+    private static final int MIN_DYNAMIC_RANGE = 24;
+
+    /**
+     * 每个条带至少包含的块行数，太少时任务调度的开销会超过并行的收益
+     */
+    static final int MIN_BAND_BLOCK_ROWS = 32;
+
+    private BitMatrix matrix;
+
+    public ParallelHybridBinarizer(@NonNull LuminanceSource source) {
+        super(source);
+    }
+
+    @Override
+    public BitMatrix getBlackMatrix() throws NotFoundException {
+        if (matrix != null) {
+            return matrix;
+        }
+        LuminanceSource source = getLuminanceSource();
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width < MINIMUM_DIMENSION || height < MINIMUM_DIMENSION) {
+            matrix = super.getBlackMatrix();
+            return matrix;
+        }
+        byte[] luminances = source.getMatrix();
+        int subWidth = width >> BLOCK_SIZE_POWER;
+        if ((width & BLOCK_SIZE_MASK) != 0) {
+            subWidth++;
+        }
+        int subHeight = height >> BLOCK_SIZE_POWER;
+        if ((height & BLOCK_SIZE_MASK) != 0) {
+            subHeight++;
+        }
+        int bands = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), subHeight / MIN_BAND_BLOCK_ROWS));
+
+        int[] blackPoints = new int[subWidth * subHeight];
+        int[] minimums = new int[subWidth * subHeight];
+        int blockWidth = subWidth;
+        int blockHeight = subHeight;
+        runInBands(subHeight, bands, (from, to) -> calculateBlockStatistics(luminances, blockWidth, from, to, width, height, blackPoints, minimums));
+        correctBlackPoints(blockWidth, blockHeight, blackPoints, minimums);
+        BitMatrix newMatrix = new BitMatrix(width, height);
+        runInBands(subHeight, bands, (from, to) -> threshold(luminances, blockWidth, blockHeight, from, to, width, height, blackPoints, newMatrix));
+        matrix = newMatrix;
+        return matrix;
+    }
+
+    /**
+     * 统计每个块的平均亮度；块内对比度太低时记录最小亮度，否则记为-1
+     */
+    private static void calculateBlockStatistics(byte[] luminances, int subWidth, int from, int to, int width, int height, int[] averages, int[] minimums) {
+        int maxYOffset = height - BLOCK_SIZE;
+        int maxXOffset = width - BLOCK_SIZE;
+        for (int y = from; y < to; y++) {
+            int yoffset = Math.min(y << BLOCK_SIZE_POWER, maxYOffset);
+            for (int x = 0; x < subWidth; x++) {
+                int xoffset = Math.min(x << BLOCK_SIZE_POWER, maxXOffset);
+                int sum = 0;
+                int min = 0xFF;
+                int max = 0;
+                for (int yy = 0, offset = yoffset * width + xoffset; yy < BLOCK_SIZE; yy++, offset += width) {
+                    for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+                        int pixel = luminances[offset + xx] & 0xFF;
+                        sum += pixel;
+                        min = Math.min(min, pixel);
+                        max = Math.max(max, pixel);
+                    }
+                }
+                int index = y * subWidth + x;
+                averages[index] = sum >> (BLOCK_SIZE_POWER * 2);
+                minimums[index] = max - min <= MIN_DYNAMIC_RANGE ? min : -1;
+            }
+        }
+    }
+
+    /**
+     * 按顺序修正对比度太低的块的阈值：默认为背景，取最小亮度的一半；有相邻块时参考相邻块的阈值
+     */
+    private static void correctBlackPoints(int subWidth, int subHeight, int[] blackPoints, int[] minimums) {
+        for (int y = 0, index = 0; y < subHeight; y++) {
+            for (int x = 0; x < subWidth; x++, index++) {
+                int min = minimums[index];
+                if (min < 0) {
+                    continue;
+                }
+                int average = min / 2;
+                if (y > 0 && x > 0) {
+                    int averageNeighborBlackPoint = (blackPoints[index - subWidth] + (2 * blackPoints[index - 1]) + blackPoints[index - subWidth - 1]) / 4;
+                    if (min < averageNeighborBlackPoint) {
+                        average = averageNeighborBlackPoint;
+                    }
+                }
+                blackPoints[index] = average;
+            }
+        }
+    }
+
+    /**
+     * 按周围5x5块的平均阈值，输出块行[from, to)对应的像素行
+     *
+     * 图像的宽高不是块大小的整数倍时，最后一个块会向前偏移，与前一个块重叠，重叠的像素只要不大于任一块的阈值即为黑色
+     */
+    private static void threshold(byte[] luminances, int subWidth, int subHeight, int from, int to, int width, int height, int[] blackPoints, BitMatrix matrix) {
+        int[] thresholds = new int[subWidth];
+        int[] lastThresholds = new int[subWidth];
+        BitArray row = new BitArray(width);
+        int[] bits = row.getBitArray();
+        boolean isOverlapY = (height & BLOCK_SIZE_MASK) != 0;
+        for (int y = from; y < to; y++) {
+            calculateThresholds(blackPoints, subWidth, subHeight, y, thresholds);
+            boolean hasOverlap = isOverlapY && y == subHeight - 2;
+            if (hasOverlap) {
+                calculateThresholds(blackPoints, subWidth, subHeight, subHeight - 1, lastThresholds);
+                for (int x = 0; x < subWidth; x++) {
+                    lastThresholds[x] = Math.max(lastThresholds[x], thresholds[x]);
+                }
+            }
+            for (int yy = y << BLOCK_SIZE_POWER, end = Math.min(yy + BLOCK_SIZE, height); yy < end; yy++) {
+                thresholdRow(luminances, yy * width, width, subWidth, hasOverlap && yy >= height - BLOCK_SIZE ? lastThresholds : thresholds, bits);
+                matrix.setRow(yy, row);
+            }
+        }
+    }
+
+    private static void calculateThresholds(int[] blackPoints, int subWidth, int subHeight, int y, int[] thresholds) {
+        int top = cap(y, subHeight - 3);
+        for (int x = 0; x < subWidth; x++) {
+            int left = cap(x, subWidth - 3);
+            int sum = 0;
+            for (int z = -2; z <= 2; z++) {
+                int offset = (top + z) * subWidth + left;
+                sum += blackPoints[offset - 2] + blackPoints[offset - 1] + blackPoints[offset] + blackPoints[offset + 1] + blackPoints[offset + 2];
+            }
+            thresholds[x] = sum / 25;
+        }
+    }
+
+    private static int cap(int value, int max) {
+        return value < 2 ? 2 : Math.min(value, max);
+    }
+
+    private static void thresholdRow(byte[] luminances, int offset, int width, int subWidth, int[] thresholds, int[] bits) {
+        //每个字对应4个完整的块
+        int fullWords = width >> 5;
+        for (int i = 0; i < fullWords; i++) {
+            int word = 0;
+            for (int block = 0, x = i << 5; block < 4; block++) {
+                int threshold = thresholds[(i << 2) + block];
+                for (int end = x + BLOCK_SIZE; x < end; x++) {
+                    //亮度不大于阈值时差值的符号位为0
+                    word |= (((threshold - (luminances[offset + x] & 0xFF)) >>> 31) ^ 1) << (x & 0x1F);
+                }
+            }
+            bits[i] = word;
+        }
+        if ((width & 0x1F) != 0) {
+            int word = 0;
+            for (int x = fullWords << 5; x < width; x++) {
+                word |= (((thresholds[x >> BLOCK_SIZE_POWER] - (luminances[offset + x] & 0xFF)) >>> 31) ^ 1) << (x & 0x1F);
+            }
+            bits[fullWords] = word;
+        }
+        if ((width & BLOCK_SIZE_MASK) != 0) {
+            //最后一个块与前一个块重叠的像素
+            int threshold = thresholds[subWidth - 1];
+            for (int x = width - BLOCK_SIZE, end = (subWidth - 1) << BLOCK_SIZE_POWER; x < end; x++) {
+                if ((luminances[offset + x] & 0xFF) <= threshold) {
+                    bits[x >> 5] |= 1 << (x & 0x1F);
+                }
+            }
+        }
+    }
+
+    /**
+     * 将[0, count)切分成若干条带，第一个条带在当前线程计算，其余的提交到{@link DecodeExecutor}中并行计算
+     * @throws NotFoundException 等待时线程被中断
+     */
+    private static void runInBands(int count, int bands, Band band) throws NotFoundException {
+        if (bands <= 1 || DecodeExecutor.isDecodeThread()) {
+            band.run(0, count);
+            return;
+        }
+        ExecutorService executor = DecodeExecutor.get();
+        List<Future<?>> futures = new ArrayList<>(bands - 1);
+        for (int i = 1; i < bands; i++) {
+            int from = count * i / bands;
+            int to = count * (i + 1) / bands;
+            futures.add(executor.submit(() -> band.run(from, to)));
+        }
+        band.run(0, count / bands);
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw NotFoundException.getNotFoundInstance();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+        return new ParallelHybridBinarizer(source);
+    }
+
+    private interface Band {
+        void run(int from, int to);
+    }
+}
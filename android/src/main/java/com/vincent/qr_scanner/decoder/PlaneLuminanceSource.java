@@ -0,0 +1,131 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 图像平面亮度源：直接从Y平面的{@link ByteBuffer}中按行读取亮度数据，不会复制整帧数据
+ *
+ * 读取时会根据rowStride和pixelStride计算每个像素的位置，兼容行尾有填充字节的设备；
+ * 裁剪时只调整读取的起始位置，不会复制数据，所以只会读取到分析区域内的行
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/01 10:12
+ */
+public class PlaneLuminanceSource extends LuminanceSource {
+
+    private final Plane plane;
+    private final int left;
+    private final int top;
+
+    /**
+     * @param buffer Y平面数据
+     * @param rowStride 行跨度
+     * @param pixelStride 像素跨度
+     * @param dataWidth 图像宽
+     * @param dataHeight 图像高
+     */
+    public PlaneLuminanceSource(@NonNull ByteBuffer buffer, int rowStride, int pixelStride, int dataWidth, int dataHeight) {
+        this(new Plane(buffer,rowStride,pixelStride,dataWidth,dataHeight),0,0,dataWidth,dataHeight);
+    }
+
+    private PlaneLuminanceSource(Plane plane, int left, int top, int width, int height) {
+        super(width, height);
+        if (left + width > plane.width || top + height > plane.height) {
+            throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
+        }
+        this.plane = plane;
+        this.left = left;
+        this.top = top;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        if (y < 0 || y >= getHeight()) {
+            throw new IllegalArgumentException("Requested row is outside the image: " + y);
+        }
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        plane.read(top + y, left, width, row, 0);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        int height = getHeight();
+        byte[] matrix = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            plane.read(top + y, left, width, matrix, y * width);
+        }
+        return matrix;
+    }
+
+    /**
+     * 释放，释放后将不能再读取数据，在{@link androidx.camera.core.ImageProxy#close()}之前调用，
+     * 避免并行解码时还在执行的解码任务读取到已经关闭的图像数据
+     */
+    public void release() {
+        plane.release();
+    }
+
+    @Override
+    public boolean isCropSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        return new PlaneLuminanceSource(plane, this.left + left, this.top + top, width, height);
+    }
+
+    /**
+     * Y平面，同一帧裁剪出来的亮度源共用同一个平面
+     */
+    private static final class Plane {
+        private final ByteBuffer buffer;
+        private final int rowStride;
+        private final int pixelStride;
+        private final int width;
+        private final int height;
+        private boolean isReleased;
+
+        Plane(ByteBuffer buffer, int rowStride, int pixelStride, int width, int height) {
+            //使用duplicate，避免修改原始buffer的position
+            this.buffer = buffer.duplicate();
+            this.rowStride = rowStride;
+            this.pixelStride = pixelStride;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * 读取一行中的一段亮度数据
+         */
+        void read(int y, int x, int length, byte[] dst, int offset) {
+            int position = y * rowStride + x * pixelStride;
+            synchronized (this) {
+                if (isReleased) {
+                    throw new IllegalStateException("Image plane has been released.");
+                }
+                if (pixelStride == 1) {
+                    buffer.position(position);
+                    buffer.get(dst, offset, length);
+                } else {
+                    for (int i = 0; i < length; i++) {
+                        dst[offset + i] = buffer.get(position + i * pixelStride);
+                    }
+                }
+            }
+        }
+
+        synchronized void release() {
+            isReleased = true;
+        }
+    }
+}
@@ -1,16 +1,12 @@
 package com.vincent.qr_scanner.decoder;
 
-import android.util.Log;
-
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
-import com.google.zxing.LuminanceSource;
-import com.google.zxing.PlanarYUVLuminanceSource;
+import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
-import com.google.zxing.common.GlobalHistogramBinarizer;
-import com.google.zxing.common.HybridBinarizer;
 import com.google.zxing.qrcode.QRCodeReader;
 
 import java.util.Map;
@@ -21,71 +17,37 @@ import java.util.Map;
  * @CreateAt: 2021/01/11 17:12
  */
 public class QRCodeAnalyzer extends AreaRectAnalyzer {
-    private QRCodeReader mReader;
+    /**
+     * 每个解码线程使用各自的{@link QRCodeReader}
+     */
+    private ThreadLocal<QRCodeReader> mReader;
 
     public QRCodeAnalyzer(@Nullable Map<DecodeHintType,Object> hints){
         this(new DecodeConfig().setHints(hints));
     }
 
+    public QRCodeAnalyzer(@NonNull DecodeProfile profile){
+        this(new DecodeConfig().setDecodeProfile(profile));
+    }
+
     public QRCodeAnalyzer(@Nullable DecodeConfig config) {
         super(config);
-        mReader = new QRCodeReader();
+        mReader = new ThreadLocal<QRCodeReader>(){
+            @Override
+            protected QRCodeReader initialValue() {
+                return new QRCodeReader();
+            }
+        };
     }
 
     @Nullable
     @Override
-    public Result analyze(byte[] data, int dataWidth, int dataHeight, int left, int top, int width, int height) {
-        Result rawResult = null;
-        if(mReader != null){
-            try {
-                long start = System.currentTimeMillis();
-                PlanarYUVLuminanceSource source = new PlanarYUVLuminanceSource(data,dataWidth,dataHeight,left,top,width,height,false);
-                rawResult = decodeInternal(source,isMultiDecode);
-
-                if(rawResult == null && mDecodeConfig != null){
-                    if(mDecodeConfig.isSupportVerticalCode()){
-                        byte[] rotatedData = new byte[data.length];
-                        for (int y = 0; y < dataHeight; y++) {
-                            for (int x = 0; x < dataWidth; x++){
-                                rotatedData[x * dataHeight + dataHeight - y - 1] = data[x + y * dataWidth];
-                            }
-                        }
-                        rawResult = decodeInternal(new PlanarYUVLuminanceSource(rotatedData,dataHeight,dataWidth,top,left,height,width,false),mDecodeConfig.isSupportVerticalCodeMultiDecode());
-                    }
-
-                    if(mDecodeConfig.isSupportLuminanceInvert()){
-                        rawResult = decodeInternal(source.invert(),mDecodeConfig.isSupportLuminanceInvertMultiDecode());
-                    }
-                }
-                if(rawResult != null){
-                    long end = System.currentTimeMillis();
-                    Log.d("QRCodeAnalyzer", "Found barcode in " + (end - start) + " ms");
-                }
-            } catch (Exception e) {
-
-            }finally {
-                mReader.reset();
-            }
-        }
-        return rawResult;
-    }
-
-    private Result decodeInternal(LuminanceSource source, boolean isMultiDecode){
-        Result result = null;
+    Result decode(@NonNull BinaryBitmap bitmap, boolean tryHarder) throws ReaderException {
+        QRCodeReader reader = mReader.get();
         try{
-            try{
-                //采用HybridBinarizer解析
-                result = mReader.decode(new BinaryBitmap(new HybridBinarizer(source)),mHints);
-            }catch (Exception e){
-
-            }
-            if(isMultiDecode && result == null){
-                //如果没有解析成功，再采用GlobalHistogramBinarizer解析一次
-                result = mReader.decode(new BinaryBitmap(new GlobalHistogramBinarizer(source)),mHints);
-            }
-        }catch (Exception e){
-
+            return reader.decode(bitmap,tryHarder ? mHints : mDecodeProfile.getFastHints());
+        }finally {
+            reader.reset();
         }
-        return result;
     }
 }
@@ -0,0 +1,125 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 识别结果去重：同一个码可能会被识别多次（如：整页扫描时分块之间的重叠区域、多码识别时的多种解码策略），
+ * 内容和格式相同，且中心点之间的距离小于码的尺寸时，认为是同一个码
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/10 09:50
+ */
+public final class ResultDeduplicator {
+
+    private ResultDeduplicator() {
+        throw new AssertionError();
+    }
+
+    /**
+     * 去掉重复的结果
+     * @param results
+     * @return 按从上到下、从左到右排列的结果
+     */
+    @NonNull
+    public static List<Result> deduplicate(@NonNull List<Result> results) {
+        List<Result> list = new ArrayList<>(results.size());
+        for (Result result : results) {
+            int duplicate = -1;
+            for (int i = 0; i < list.size(); i++) {
+                if (isSameCode(list.get(i), result)) {
+                    duplicate = i;
+                    break;
+                }
+            }
+            if (duplicate < 0) {
+                list.add(result);
+            } else if (getPointCount(result) > getPointCount(list.get(duplicate))) {
+                //保留坐标点更完整的结果
+                list.set(duplicate, result);
+            }
+        }
+        Collections.sort(list, (r1, r2) -> {
+            ResultPoint c1 = getCenter(r1);
+            ResultPoint c2 = getCenter(r2);
+            if (c1 == null || c2 == null) {
+                return c1 == null ? (c2 == null ? 0 : 1) : -1;
+            }
+            int compare = Float.compare(c1.getY(), c2.getY());
+            return compare != 0 ? compare : Float.compare(c1.getX(), c2.getX());
+        });
+        return list;
+    }
+
+    private static boolean isSameCode(Result r1, Result r2) {
+        if (r1.getBarcodeFormat() != r2.getBarcodeFormat() || !r1.getText().equals(r2.getText())) {
+            return false;
+        }
+        ResultPoint c1 = getCenter(r1);
+        ResultPoint c2 = getCenter(r2);
+        if (c1 == null || c2 == null) {
+            return true;
+        }
+        float size = Math.max(getSize(r1), getSize(r2));
+        return ResultPoint.distance(c1, c2) <= size;
+    }
+
+    private static int getPointCount(Result result) {
+        int count = 0;
+        if (result.getResultPoints() != null) {
+            for (ResultPoint point : result.getResultPoints()) {
+                if (point != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 码的中心点：所有坐标点的平均值
+     * @param result
+     * @return 没有坐标点时为{@code null}
+     */
+    @Nullable
+    public static ResultPoint getCenter(@NonNull Result result) {
+        int count = 0;
+        float x = 0;
+        float y = 0;
+        if (result.getResultPoints() != null) {
+            for (ResultPoint point : result.getResultPoints()) {
+                if (point != null) {
+                    x += point.getX();
+                    y += point.getY();
+                    count++;
+                }
+            }
+        }
+        return count > 0 ? new ResultPoint(x / count, y / count) : null;
+    }
+
+    /**
+     * 码的尺寸：坐标点之间的最大距离
+     */
+    private static float getSize(Result result) {
+        ResultPoint[] points = result.getResultPoints();
+        float size = 0;
+        if (points != null) {
+            for (int i = 0; i < points.length; i++) {
+                for (int j = i + 1; j < points.length; j++) {
+                    if (points[i] != null && points[j] != null) {
+                        size = Math.max(size, ResultPoint.distance(points[i], points[j]));
+                    }
+                }
+            }
+        }
+        return size;
+    }
+}
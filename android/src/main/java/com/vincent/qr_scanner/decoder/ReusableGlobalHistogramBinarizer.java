@@ -0,0 +1,205 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+
+/**
+ * 可复用缓冲区的全局直方图二值化器：算法与{@link GlobalHistogramBinarizer}一致，
+ * 但直方图、行数据、亮度矩阵和输出矩阵都来自当前线程的{@link BinarizerBuffers}，连续分析尺寸相同的帧时不再分配内存
+ *
+ * 输出矩阵会在同一线程的下一次二值化时被覆盖，所以只适合在分析线程中一帧一用（如：{@link DecodeStrategy#createBinarizer(LuminanceSource)}）；
+ * 解码过程中读取器对图像进行裁剪或旋转时，{@link #createBinarizer(LuminanceSource)}返回的是{@link GlobalHistogramBinarizer}，不会覆盖当前的输出矩阵
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/11 15:45
+ */
+public class ReusableGlobalHistogramBinarizer extends Binarizer {
+
+    private final BinarizerBuffers buffers;
+    private BitMatrix matrix;
+
+    public ReusableGlobalHistogramBinarizer(@NonNull LuminanceSource source) {
+        this(source, null);
+    }
+
+    /**
+     *
+     * @param source 亮度源
+     * @param buffers 独占的缓冲区，为{@code null}时使用当前线程的缓冲区
+     */
+    ReusableGlobalHistogramBinarizer(@NonNull LuminanceSource source, @Nullable BinarizerBuffers buffers) {
+        super(source);
+        this.buffers = buffers;
+    }
+
+    /**
+     * 获取二值化时使用的缓冲区
+     * @return
+     */
+    @NonNull
+    BinarizerBuffers getBuffers() {
+        return buffers != null ? buffers : BinarizerBuffers.get();
+    }
+
+    @Override
+    public BitArray getBlackRow(int y, BitArray row) throws NotFoundException {
+        LuminanceSource source = getLuminanceSource();
+        int width = source.getWidth();
+        if (row == null || row.getSize() < width) {
+            row = new BitArray(width);
+        } else {
+            row.clear();
+        }
+
+        BinarizerBuffers buffers = getBuffers();
+        byte[] luminances = source.getRow(y, buffers.getRow(width));
+        binarizeRow(luminances, width, row, buffers.clearBuckets());
+        return row;
+    }
+
+    /**
+     * 按整行的直方图估算黑点后二值化一行亮度数据，与{@link GlobalHistogramBinarizer#getBlackRow(int, BitArray)}一致
+     * @param luminances 亮度数据
+     * @param width 前{@code width}个元素为需要二值化的数据
+     * @param row 清零后的位数组，1为黑色
+     * @param buckets 清零后的直方图
+     * @throws NotFoundException 对比度太低时
+     */
+    static void binarizeRow(@NonNull byte[] luminances, int width, @NonNull BitArray row, @NonNull int[] buckets) throws NotFoundException {
+        for (int x = 0; x < width; x++) {
+            buckets[(luminances[x] & 0xFF) >> BinarizerBuffers.LUMINANCE_SHIFT]++;
+        }
+        int blackPoint = estimateBlackPoint(buckets);
+
+        if (width < 3) {
+            //图像太小时直接比较
+            for (int x = 0; x < width; x++) {
+                if ((luminances[x] & 0xFF) < blackPoint) {
+                    row.set(x);
+                }
+            }
+        } else {
+            int left = luminances[0] & 0xFF;
+            int center = luminances[1] & 0xFF;
+            for (int x = 1; x < width - 1; x++) {
+                int right = luminances[x + 1] & 0xFF;
+                //-1 4 -1的锐化滤波，权重为2
+                if (((center * 4) - left - right) / 2 < blackPoint) {
+                    row.set(x);
+                }
+                left = center;
+                center = right;
+            }
+        }
+    }
+
+    @Override
+    public BitMatrix getBlackMatrix() throws NotFoundException {
+        if (matrix == null) {
+            matrix = calculateBlackMatrix(getBuffers());
+        }
+        return matrix;
+    }
+
+    /**
+     * 计算二值化后的矩阵
+     * @param buffers 二值化时使用的缓冲区
+     * @return 来自{@link BinarizerBuffers#getMatrix(int, int)}的输出矩阵
+     * @throws NotFoundException 对比度太低时抛出
+     */
+    @NonNull
+    BitMatrix calculateBlackMatrix(@NonNull BinarizerBuffers buffers) throws NotFoundException {
+        LuminanceSource source = getLuminanceSource();
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        //只取中间区域的4行估计阈值
+        int[] buckets = buffers.clearBuckets();
+        for (int y = 1; y < 5; y++) {
+            byte[] luminances = source.getRow(height * y / 5, buffers.getRow(width));
+            int right = (width * 4) / 5;
+            for (int x = width / 5; x < right; x++) {
+                buckets[(luminances[x] & 0xFF) >> BinarizerBuffers.LUMINANCE_SHIFT]++;
+            }
+        }
+        int blackPoint = estimateBlackPoint(buckets);
+
+        byte[] luminances = buffers.readLuminances(source);
+        BitMatrix matrix = buffers.getMatrix(width, height);
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                if ((luminances[offset + x] & 0xFF) < blackPoint) {
+                    matrix.set(x, y);
+                }
+            }
+        }
+        return matrix;
+    }
+
+    private static int estimateBlackPoint(int[] buckets) throws NotFoundException {
+        //找到最高的峰
+        int numBuckets = buckets.length;
+        int maxBucketCount = 0;
+        int firstPeak = 0;
+        int firstPeakSize = 0;
+        for (int x = 0; x < numBuckets; x++) {
+            if (buckets[x] > firstPeakSize) {
+                firstPeak = x;
+                firstPeakSize = buckets[x];
+            }
+            if (buckets[x] > maxBucketCount) {
+                maxBucketCount = buckets[x];
+            }
+        }
+
+        //找到离最高峰较远的第二个峰，距离的平方作为权重
+        int secondPeak = 0;
+        int secondPeakScore = 0;
+        for (int x = 0; x < numBuckets; x++) {
+            int distanceToBiggest = x - firstPeak;
+            int score = buckets[x] * distanceToBiggest * distanceToBiggest;
+            if (score > secondPeakScore) {
+                secondPeak = x;
+                secondPeakScore = score;
+            }
+        }
+
+        if (firstPeak > secondPeak) {
+            int temp = firstPeak;
+            firstPeak = secondPeak;
+            secondPeak = temp;
+        }
+
+        //两个峰太近说明对比度太低，无法得到有意义的阈值
+        if (secondPeak - firstPeak <= numBuckets / 16) {
+            throw NotFoundException.getNotFoundInstance();
+        }
+
+        //在两峰之间找一个较低且靠近白色峰的谷
+        int bestValley = secondPeak - 1;
+        int bestValleyScore = -1;
+        for (int x = secondPeak - 1; x > firstPeak; x--) {
+            int fromFirst = x - firstPeak;
+            int score = fromFirst * fromFirst * (secondPeak - x) * (maxBucketCount - buckets[x]);
+            if (score > bestValleyScore) {
+                bestValley = x;
+                bestValleyScore = score;
+            }
+        }
+
+        return bestValley << BinarizerBuffers.LUMINANCE_SHIFT;
+    }
+
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+        return new GlobalHistogramBinarizer(source);
+    }
+}
@@ -0,0 +1,148 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+
+/**
+ * 可复用缓冲区的混合二值化器：算法与{@link HybridBinarizer}一致（8x8分块，按周围5x5块的平均阈值二值化），
+ * 但亮度矩阵、块阈值和输出矩阵都来自当前线程的{@link BinarizerBuffers}，连续分析尺寸相同的帧时不再分配内存
+ *
+ * 块阈值使用一维数组按行存储；图像边长小于{@link #MINIMUM_DIMENSION}时与{@link HybridBinarizer}一样退化为全局直方图算法
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/11 16:20
+ */
+public final class ReusableHybridBinarizer extends ReusableGlobalHistogramBinarizer {
+
+    private static final int BLOCK_SIZE_POWER = 3;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SIZE_POWER;
+    private static final int BLOCK_SIZE_MASK = BLOCK_SIZE - 1;
+    private static final int MINIMUM_DIMENSION = BLOCK_SIZE * 5;
+    private static final int MIN_DYNAMIC_RANGE = 24;
+
+    public ReusableHybridBinarizer(@NonNull LuminanceSource source) {
+        super(source);
+    }
+
+    @NonNull
+    @Override
+    BitMatrix calculateBlackMatrix(@NonNull BinarizerBuffers buffers) throws NotFoundException {
+        LuminanceSource source = getLuminanceSource();
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width < MINIMUM_DIMENSION || height < MINIMUM_DIMENSION) {
+            return super.calculateBlackMatrix(buffers);
+        }
+        int subWidth = width >> BLOCK_SIZE_POWER;
+        if ((width & BLOCK_SIZE_MASK) != 0) {
+            subWidth++;
+        }
+        int subHeight = height >> BLOCK_SIZE_POWER;
+        if ((height & BLOCK_SIZE_MASK) != 0) {
+            subHeight++;
+        }
+        byte[] luminances = buffers.readLuminances(source);
+        int[] blackPoints = buffers.getBlackPoints(subWidth * subHeight);
+        calculateBlackPoints(luminances, subWidth, subHeight, width, height, blackPoints);
+        BitMatrix matrix = buffers.getMatrix(width, height);
+        calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints, matrix);
+        return matrix;
+    }
+
+    /**
+     * 计算每个块的阈值：块内的平均亮度，块内对比度太低时认为是背景
+     */
+    private static void calculateBlackPoints(byte[] luminances, int subWidth, int subHeight, int width, int height, int[] blackPoints) {
+        int maxYOffset = height - BLOCK_SIZE;
+        int maxXOffset = width - BLOCK_SIZE;
+        for (int y = 0; y < subHeight; y++) {
+            int yoffset = Math.min(y << BLOCK_SIZE_POWER, maxYOffset);
+            for (int x = 0; x < subWidth; x++) {
+                int xoffset = Math.min(x << BLOCK_SIZE_POWER, maxXOffset);
+                int sum = 0;
+                int min = 0xFF;
+                int max = 0;
+                for (int yy = 0, offset = yoffset * width + xoffset; yy < BLOCK_SIZE; yy++, offset += width) {
+                    for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+                        int pixel = luminances[offset + xx] & 0xFF;
+                        sum += pixel;
+                        if (pixel < min) {
+                            min = pixel;
+                        }
+                        if (pixel > max) {
+                            max = pixel;
+                        }
+                    }
+                    //对比度已经足够时，剩余的行只需累加
+                    if (max - min > MIN_DYNAMIC_RANGE) {
+                        for (yy++, offset += width; yy < BLOCK_SIZE; yy++, offset += width) {
+                            for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+                                sum += luminances[offset + xx] & 0xFF;
+                            }
+                        }
+                    }
+                }
+
+                int average = sum >> (BLOCK_SIZE_POWER * 2);
+                if (max - min <= MIN_DYNAMIC_RANGE) {
+                    //对比度太低时默认为背景，取最小亮度的一半；有相邻块时参考相邻块的阈值
+                    average = min / 2;
+                    if (y > 0 && x > 0) {
+                        int index = y * subWidth + x;
+                        int averageNeighborBlackPoint = (blackPoints[index - subWidth] + (2 * blackPoints[index - 1]) + blackPoints[index - subWidth - 1]) / 4;
+                        if (min < averageNeighborBlackPoint) {
+                            average = averageNeighborBlackPoint;
+                        }
+                    }
+                }
+                blackPoints[y * subWidth + x] = average;
+            }
+        }
+    }
+
+    /**
+     * 按周围5x5块的平均阈值对每个块进行二值化
+     */
+    private static void calculateThresholdForBlock(byte[] luminances, int subWidth, int subHeight, int width, int height, int[] blackPoints, BitMatrix matrix) {
+        int maxYOffset = height - BLOCK_SIZE;
+        int maxXOffset = width - BLOCK_SIZE;
+        for (int y = 0; y < subHeight; y++) {
+            int yoffset = Math.min(y << BLOCK_SIZE_POWER, maxYOffset);
+            int top = cap(y, subHeight - 3);
+            for (int x = 0; x < subWidth; x++) {
+                int xoffset = Math.min(x << BLOCK_SIZE_POWER, maxXOffset);
+                int left = cap(x, subWidth - 3);
+                int sum = 0;
+                for (int z = -2; z <= 2; z++) {
+                    int offset = (top + z) * subWidth + left;
+                    sum += blackPoints[offset - 2] + blackPoints[offset - 1] + blackPoints[offset] + blackPoints[offset + 1] + blackPoints[offset + 2];
+                }
+                thresholdBlock(luminances, xoffset, yoffset, sum / 25, width, matrix);
+            }
+        }
+    }
+
+    private static int cap(int value, int max) {
+        return value < 2 ? 2 : Math.min(value, max);
+    }
+
+    private static void thresholdBlock(byte[] luminances, int xoffset, int yoffset, int threshold, int stride, BitMatrix matrix) {
+        for (int y = 0, offset = yoffset * stride + xoffset; y < BLOCK_SIZE; y++, offset += stride) {
+            for (int x = 0; x < BLOCK_SIZE; x++) {
+                if ((luminances[offset + x] & 0xFF) <= threshold) {
+                    matrix.set(xoffset + x, yoffset + y);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+        return new HybridBinarizer(source);
+    }
+}
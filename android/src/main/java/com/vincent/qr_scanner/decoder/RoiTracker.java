@@ -0,0 +1,131 @@
+package com.vincent.qr_scanner.decoder;
+
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+
+/**
+ * 识别区域跟踪器：连续扫码时，码在相邻帧中的位置变化不大，根据上一次识别结果的坐标点预测下一帧的识别区域，
+ * 预测的区域一般比默认的识别区域小很多，二值化和定位的耗时也会相应减少
+ *
+ * 预测的区域为坐标点的外接矩形向四周扩展{@link #MARGIN_RATIO}倍的码尺寸，且边长不小于图像短边的{@link #MIN_SIZE_RATIO}；
+ * 连续{@link #MAX_MISS_COUNT}帧在预测的区域中没有识别到时，认为已经丢失跟踪，恢复使用默认的识别区域
+ *
+ * 主要在分析线程中调用，非线程安全
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/10 15:00
+ */
+public class RoiTracker {
+
+    /**
+     * 向四周扩展的比例：相对于码的尺寸
+     */
+    static final float MARGIN_RATIO = 0.5f;
+    /**
+     * 预测区域的最小边长：相对于图像的短边
+     */
+    static final float MIN_SIZE_RATIO = 0.25f;
+    /**
+     * 连续识别失败多少帧后丢失跟踪
+     */
+    static final int MAX_MISS_COUNT = 3;
+
+    private Rect trackingRect;
+    private int imageWidth;
+    private int imageHeight;
+    private int missCount;
+
+    /**
+     * 获取预测的识别区域
+     * @param width 图像宽
+     * @param height 图像高
+     * @return 没有跟踪到码，或图像尺寸发生变化时返回{@code null}
+     */
+    @Nullable
+    public Rect getTrackingRect(int width, int height) {
+        if (trackingRect != null && (width != imageWidth || height != imageHeight)) {
+            reset();
+        }
+        return trackingRect;
+    }
+
+    /**
+     * 每识别一帧后调用，更新预测的识别区域
+     * @param result 识别结果，坐标点为{@code areaRect}中的坐标
+     * @param areaRect 本次识别的区域
+     * @param width 图像宽
+     * @param height 图像高
+     */
+    public void update(@Nullable Result result, @NonNull Rect areaRect, int width, int height) {
+        Rect rect = result != null ? predict(result.getResultPoints(), areaRect, width, height) : null;
+        if (rect != null) {
+            trackingRect = rect;
+            imageWidth = width;
+            imageHeight = height;
+            missCount = 0;
+        } else if (trackingRect != null && ++missCount >= MAX_MISS_COUNT) {
+            reset();
+        }
+    }
+
+    @Nullable
+    private static Rect predict(@Nullable ResultPoint[] points, @NonNull Rect areaRect, int width, int height) {
+        if (points == null) {
+            return null;
+        }
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        int count = 0;
+        for (ResultPoint point : points) {
+            if (point != null) {
+                minX = Math.min(minX, point.getX());
+                minY = Math.min(minY, point.getY());
+                maxX = Math.max(maxX, point.getX());
+                maxY = Math.max(maxY, point.getY());
+                count++;
+            }
+        }
+        if (count < 2) {
+            return null;
+        }
+        float size = Math.max(maxX - minX, maxY - minY);
+        float margin = size * MARGIN_RATIO;
+        float minSize = Math.min(width, height) * MIN_SIZE_RATIO;
+        //一维码的坐标点在同一条线上，外接矩形很扁，两个方向都至少扩展到最小边长
+        float halfWidth = Math.max((maxX - minX) / 2 + margin, minSize / 2);
+        float halfHeight = Math.max((maxY - minY) / 2 + margin, minSize / 2);
+        float centerX = areaRect.left + (minX + maxX) / 2;
+        float centerY = areaRect.top + (minY + maxY) / 2;
+        int left = Math.max(0, (int) (centerX - halfWidth));
+        int top = Math.max(0, (int) (centerY - halfHeight));
+        int right = Math.min(width, (int) Math.ceil(centerX + halfWidth));
+        int bottom = Math.min(height, (int) Math.ceil(centerY + halfHeight));
+        if (right - left < 1 || bottom - top < 1) {
+            return null;
+        }
+        return new Rect(left, top, right, bottom);
+    }
+
+    /**
+     * 重置状态，恢复使用默认的识别区域
+     */
+    public void reset() {
+        trackingRect = null;
+        missCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "RoiTracker{" +
+                "trackingRect=" + trackingRect +
+                ", missCount=" + missCount +
+                '}';
+    }
+}
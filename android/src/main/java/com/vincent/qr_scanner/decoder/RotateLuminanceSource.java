@@ -0,0 +1,170 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.ResultPoint;
+
+/**
+ * 旋转亮度源：按顺时针方向旋转90、180或270度的视图，读取时才进行坐标映射
+ *
+ * 旋转90或270度时，一行数据对应{@link #getDelegate()}中的一列，读取单行时会先逐行读取被旋转的亮度源，
+ * 写入当前线程{@link BinarizerBuffers}中复用的数组，同一线程后续读取这个视图时直接从中复制，不会每帧分配整个矩阵；
+ * 读取整个矩阵时则逐行读取后直接写入旋转后的位置，不会额外缓存
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/02 15:05
+ */
+public class RotateLuminanceSource extends TransformLuminanceSource {
+
+    private final int degrees;
+
+    /**
+     *
+     * @param delegate 被旋转的亮度源
+     * @param degrees 顺时针旋转的角度，只支持：90、180、270
+     */
+    public RotateLuminanceSource(@NonNull LuminanceSource delegate, int degrees) {
+        super(delegate, degrees == 180 ? delegate.getWidth() : delegate.getHeight(), degrees == 180 ? delegate.getHeight() : delegate.getWidth());
+        if (degrees != 90 && degrees != 180 && degrees != 270) {
+            throw new IllegalArgumentException("Unsupported rotation degrees: " + degrees);
+        }
+        this.degrees = degrees;
+    }
+
+    /**
+     * 顺时针旋转的角度
+     * @return
+     */
+    public int getDegrees() {
+        return degrees;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        if (degrees != 180) {
+            //第y行对应被旋转亮度源中的一列，从当前线程缓存的旋转后的矩阵中复制
+            System.arraycopy(getRotatedMatrix(BinarizerBuffers.get()), y * width, row, 0, width);
+            return row;
+        }
+        row = getDelegateRow(delegate.getHeight() - 1 - y, row);
+        for (int i = 0, j = width - 1; i < j; i++, j--) {
+            byte temp = row[i];
+            row[i] = row[j];
+            row[j] = temp;
+        }
+        return row;
+    }
+
+    /**
+     * 获取当前线程中缓存的旋转后的矩阵，没有缓存时逐行读取被旋转的亮度源后写入复用的数组
+     * @param buffers 当前线程的缓冲区
+     * @return 前{@code width * height}个元素有效，不可修改
+     */
+    @NonNull
+    byte[] getRotatedMatrix(@NonNull BinarizerBuffers buffers) {
+        byte[] matrix = buffers.getRotated(this);
+        if (matrix == null) {
+            matrix = buffers.claimRotated(this, getWidth() * getHeight());
+            try {
+                readMatrix(matrix, buffers.getScratchRow(delegate.getWidth()));
+            } catch (RuntimeException e) {
+                //读取失败（如：图像数据已释放）时不能保留不完整的缓存
+                buffers.releaseRotated(this);
+                throw e;
+            }
+        }
+        return matrix;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        byte[] matrix = new byte[getWidth() * getHeight()];
+        readMatrix(matrix, new byte[delegate.getWidth()]);
+        return matrix;
+    }
+
+    /**
+     * 逐行读取被旋转的亮度源，写入旋转后的位置
+     * @param matrix 至少能容纳{@code width * height}个元素
+     * @param row 至少能容纳被旋转的亮度源的一行
+     */
+    private void readMatrix(byte[] matrix, byte[] row) {
+        int width = getWidth();
+        int dataWidth = delegate.getWidth();
+        int dataHeight = delegate.getHeight();
+        for (int y = 0; y < dataHeight; y++) {
+            row = getDelegateRow(y, row);
+            switch (degrees) {
+                case 90:
+                    //(x,y) -> (dataHeight - 1 - y, x)
+                    for (int x = 0, offset = dataHeight - 1 - y; x < dataWidth; x++, offset += width) {
+                        matrix[offset] = row[x];
+                    }
+                    break;
+                case 270:
+                    //(x,y) -> (y, dataWidth - 1 - x)
+                    for (int x = 0, offset = (dataWidth - 1) * width + y; x < dataWidth; x++, offset -= width) {
+                        matrix[offset] = row[x];
+                    }
+                    break;
+                default:
+                    //(x,y) -> (dataWidth - 1 - x, dataHeight - 1 - y)
+                    for (int x = 0, offset = (dataHeight - y) * width - 1; x < dataWidth; x++, offset--) {
+                        matrix[offset] = row[x];
+                    }
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        if (!delegate.isCropSupported()) {
+            return super.crop(left, top, width, height);
+        }
+        //先裁剪被旋转的亮度源，再进行旋转，这样只会读取到裁剪区域内的数据
+        int dataWidth = delegate.getWidth();
+        int dataHeight = delegate.getHeight();
+        LuminanceSource cropped;
+        switch (degrees) {
+            case 90:
+                cropped = delegate.crop(top, dataHeight - left - width, height, width);
+                break;
+            case 270:
+                cropped = delegate.crop(dataWidth - top - height, left, height, width);
+                break;
+            default:
+                cropped = delegate.crop(dataWidth - left - width, dataHeight - top - height, width, height);
+                break;
+        }
+        return new RotateLuminanceSource(cropped, degrees);
+    }
+
+    @Override
+    public LuminanceSource rotateCounterClockwise() {
+        if (degrees == 90) {
+            return delegate;
+        }
+        return new RotateLuminanceSource(delegate, degrees - 90);
+    }
+
+    @NonNull
+    @Override
+    public ResultPoint toDelegatePoint(@NonNull ResultPoint point) {
+        int dataWidth = delegate.getWidth();
+        int dataHeight = delegate.getHeight();
+        switch (degrees) {
+            case 90:
+                return new ResultPoint(point.getY(), dataHeight - 1 - point.getX());
+            case 270:
+                return new ResultPoint(dataWidth - 1 - point.getY(), point.getX());
+            default:
+                return new ResultPoint(dataWidth - 1 - point.getX(), dataHeight - 1 - point.getY());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+/**
+ * 扫描线表：预先计算好分析区域中各个角度的扫描线，采样时只需按偏移表逐个读取亮度矩阵，不需要旋转图像
+ *
+ * 同一角度的扫描线相互平行，沿主方向每次前进一个像素，次方向按Bresenham（四舍五入）累加，
+ * 所以同一角度的所有扫描线共用一张下标偏移表，每条扫描线只记录起点和长度；
+ * 扫描线从分析区域的中心开始，沿垂直于扫描方向的方向向两侧交替展开
+ *
+ * 只与分析区域的尺寸有关，尺寸不变时可一直复用
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/14 17:00
+ */
+final class ScanLineTable {
+
+    /**
+     * 扫描线的最短长度，更短的扫描线放不下一个完整的一维码
+     */
+    static final int MIN_LINE_LENGTH = 32;
+
+    final int width;
+    final int height;
+    final int lineCount;
+    /**
+     * 扫描的角度，顺时针方向，0为水平向右
+     */
+    final int[] angles;
+    /**
+     * 每个角度在分析区域中每一步的偏移，主方向为±1
+     */
+    final float[] stepX;
+    final float[] stepY;
+    /**
+     * 每个角度的下标偏移表：第{@code t}个采样点到第{@code t + 1}个采样点的下标差
+     */
+    final int[][] offsets;
+    /**
+     * 每个角度每条扫描线的起点下标，没有这条扫描线时为-1
+     */
+    final int[][] starts;
+    /**
+     * 每个角度每条扫描线的长度
+     */
+    final int[][] lengths;
+
+    /**
+     *
+     * @param width 分析区域的宽
+     * @param height 分析区域的高
+     * @param lineCount 每个角度的扫描线数
+     * @param angles 扫描的角度，范围为[0,180)
+     */
+    ScanLineTable(int width, int height, int lineCount, @NonNull int[] angles) {
+        this.width = width;
+        this.height = height;
+        this.lineCount = lineCount;
+        this.angles = angles.clone();
+        int size = angles.length;
+        stepX = new float[size];
+        stepY = new float[size];
+        offsets = new int[size][];
+        starts = new int[size][lineCount];
+        lengths = new int[size][lineCount];
+        for (int i = 0; i < size; i++) {
+            double radians = Math.toRadians(angles[i]);
+            double cos = Math.cos(radians);
+            double sin = Math.sin(radians);
+            double major = Math.max(Math.abs(cos), Math.abs(sin));
+            stepX[i] = (float) (cos / major);
+            stepY[i] = (float) (sin / major);
+            offsets[i] = createOffsets(stepX[i], stepY[i], Math.max(width, height), width);
+            createLines(i, -sin, cos);
+        }
+    }
+
+    /**
+     * 按四舍五入计算每一步的下标差
+     */
+    private static int[] createOffsets(float stepX, float stepY, int length, int width) {
+        int[] offsets = new int[length];
+        int lastX = 0;
+        int lastY = 0;
+        for (int t = 1; t <= length; t++) {
+            int x = Math.round(t * stepX);
+            int y = Math.round(t * stepY);
+            offsets[t - 1] = (x - lastX) + (y - lastY) * width;
+            lastX = x;
+            lastY = y;
+        }
+        return offsets;
+    }
+
+    /**
+     * 计算一个角度所有扫描线的起点和长度
+     * @param index 角度的下标
+     * @param normalX 垂直于扫描方向的单位向量
+     * @param normalY
+     */
+    private void createLines(int index, double normalX, double normalY) {
+        float stepX = this.stepX[index];
+        float stepY = this.stepY[index];
+        double centerX = (width - 1) / 2.0;
+        double centerY = (height - 1) / 2.0;
+        //分析区域在法线方向上的半宽，扫描线均匀分布在其中
+        double extent = (Math.abs(normalX) * (width - 1) + Math.abs(normalY) * (height - 1)) / 2;
+        double spacing = extent * 2 / (lineCount + 1);
+        for (int line = 0; line < lineCount; line++) {
+            int steps = (line + 1) / 2;
+            double offset = spacing * ((line & 0x01) == 0 ? steps : -steps);
+            double x = centerX + normalX * offset;
+            double y = centerY + normalY * offset;
+            //扫描线与分析区域相交的参数范围
+            double min = -Double.MAX_VALUE;
+            double max = Double.MAX_VALUE;
+            if (stepX != 0) {
+                double t0 = -x / stepX;
+                double t1 = (width - 1 - x) / stepX;
+                min = Math.max(min, Math.min(t0, t1));
+                max = Math.min(max, Math.max(t0, t1));
+            } else if (x < 0 || x > width - 1) {
+                max = min;
+            }
+            if (stepY != 0) {
+                double t0 = -y / stepY;
+                double t1 = (height - 1 - y) / stepY;
+                min = Math.max(min, Math.min(t0, t1));
+                max = Math.min(max, Math.max(t0, t1));
+            } else if (y < 0 || y > height - 1) {
+                max = min;
+            }
+            int begin = (int) Math.ceil(min);
+            int length = (int) Math.floor(max) - begin + 1;
+            int startX = (int) Math.round(x + begin * stepX);
+            int startY = (int) Math.round(y + begin * stepY);
+            //逐步四舍五入的终点可能与直接计算的相差一个像素，超出时缩短
+            while (length > 0 && !contains(startX + Math.round((length - 1) * stepX), startY + Math.round((length - 1) * stepY))) {
+                length--;
+            }
+            if (length < MIN_LINE_LENGTH || !contains(startX, startY)) {
+                starts[index][line] = -1;
+            } else {
+                starts[index][line] = startY * width + startX;
+                lengths[index][line] = length;
+            }
+        }
+    }
+
+    private boolean contains(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * 按偏移表读取一条扫描线上的亮度数据
+     * @param luminances 分析区域的亮度矩阵
+     * @param index 角度的下标
+     * @param line 扫描线的下标
+     * @param row 至少能容纳扫描线长度的数组
+     * @return 扫描线的长度
+     */
+    int sample(@NonNull byte[] luminances, int index, int line, @NonNull byte[] row) {
+        int[] offsets = this.offsets[index];
+        int length = lengths[index][line];
+        for (int t = 0, position = starts[index][line]; t < length; t++) {
+            row[t] = luminances[position];
+            position += offsets[t];
+        }
+        return length;
+    }
+
+    /**
+     * 是否与指定的参数一致，一致时可以直接复用
+     */
+    boolean matches(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+}
@@ -0,0 +1,185 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * 清晰度评估器：在二值化之前快速评估分析区域的清晰度，用于跳过移动设备时产生的模糊帧
+ *
+ * 清晰度评分为分析区域中相邻像素梯度平方的均值，只采样均匀分布的{@link #MAX_SAMPLE_LINES}行（每行还需读取下一行计算纵向梯度）；
+ * 阈值是自适应的：为最近评分的指数移动平均值乘以{@link #getThresholdRatio()}，这样无论场景纹理多少，都只会过滤掉明显比平时更模糊的帧；
+ * 为了避免持续模糊时一直不解码，连续过滤{@link #MAX_REJECT_COUNT}帧后会强制放行一帧
+ *
+ * 主要在分析线程中调用，非线程安全
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/07 14:30
+ */
+public class SharpnessEstimator {
+
+    /**
+     * 默认的阈值比例
+     */
+    public static final float DEFAULT_THRESHOLD_RATIO = 0.5f;
+    /**
+     * 最多采样的行数
+     */
+    static final int MAX_SAMPLE_LINES = 64;
+    /**
+     * 统计的帧数达到此值之前不会过滤
+     */
+    static final int WARM_UP_COUNT = 5;
+    /**
+     * 连续过滤的最大帧数
+     */
+    static final int MAX_REJECT_COUNT = 5;
+    /**
+     * 指数移动平均的平滑系数
+     */
+    private static final float SMOOTHING_FACTOR = 0.1f;
+
+    private final float thresholdRatio;
+
+    private float lastScore;
+    private float averageScore;
+    private int sampleCount;
+    private int rejectCount;
+
+    private OnSharpnessListener onSharpnessListener;
+
+    public SharpnessEstimator() {
+        this(DEFAULT_THRESHOLD_RATIO);
+    }
+
+    /**
+     *
+     * @param thresholdRatio 阈值比例：评分低于平均评分的多少倍时过滤掉
+     */
+    public SharpnessEstimator(@FloatRange(from = 0.0, to = 1.0) float thresholdRatio) {
+        this.thresholdRatio = thresholdRatio;
+    }
+
+    /**
+     * 计算清晰度评分
+     * @param source 分析区域
+     * @return 评分越高越清晰
+     */
+    public static float estimate(@NonNull LuminanceSource source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width < 2 || height < 2) {
+            return 0;
+        }
+        int stepY = Math.max(1, height / MAX_SAMPLE_LINES);
+        byte[] row = new byte[width];
+        byte[] nextRow = new byte[width];
+        long sum = 0;
+        int count = 0;
+        for (int y = stepY / 2; y < height - 1; y += stepY) {
+            row = source.getRow(y, row);
+            nextRow = source.getRow(y + 1, nextRow);
+            for (int x = 0; x < width - 1; x++) {
+                int value = row[x] & 0xFF;
+                int dx = (row[x + 1] & 0xFF) - value;
+                int dy = (nextRow[x] & 0xFF) - value;
+                sum += dx * dx + dy * dy;
+                count++;
+            }
+        }
+        return count > 0 ? (float) sum / count : 0;
+    }
+
+    /**
+     * 评估分析区域的清晰度，并判断是否需要进行解码
+     * @param source 分析区域
+     * @return {@code true}表示足够清晰，需要解码；{@code false}表示模糊，直接跳过
+     */
+    public boolean accept(@NonNull LuminanceSource source) {
+        float score = estimate(source);
+        float threshold = getThreshold();
+        boolean accepted = sampleCount < WARM_UP_COUNT || score >= threshold || rejectCount >= MAX_REJECT_COUNT;
+        rejectCount = accepted ? 0 : rejectCount + 1;
+        lastScore = score;
+        averageScore = sampleCount > 0 ? averageScore + SMOOTHING_FACTOR * (score - averageScore) : score;
+        sampleCount++;
+        if (onSharpnessListener != null) {
+            onSharpnessListener.onSharpness(score, threshold, accepted);
+        }
+        return accepted;
+    }
+
+    /**
+     * 阈值比例
+     * @return
+     */
+    public float getThresholdRatio() {
+        return thresholdRatio;
+    }
+
+    /**
+     * 当前的过滤阈值
+     * @return
+     */
+    public float getThreshold() {
+        return averageScore * thresholdRatio;
+    }
+
+    /**
+     * 最近一帧的评分
+     * @return
+     */
+    public float getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * 评分的指数移动平均值
+     * @return
+     */
+    public float getAverageScore() {
+        return averageScore;
+    }
+
+    /**
+     * 设置清晰度评分监听，可用于调优阈值比例
+     * @param listener
+     */
+    public void setOnSharpnessListener(@Nullable OnSharpnessListener listener) {
+        this.onSharpnessListener = listener;
+    }
+
+    /**
+     * 重置统计信息，开始新的扫码过程
+     */
+    public void reset() {
+        lastScore = 0;
+        averageScore = 0;
+        sampleCount = 0;
+        rejectCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "SharpnessEstimator{" +
+                "thresholdRatio=" + thresholdRatio +
+                ", lastScore=" + lastScore +
+                ", averageScore=" + averageScore +
+                '}';
+    }
+
+    /**
+     * 清晰度评分监听
+     */
+    public interface OnSharpnessListener {
+        /**
+         * 每评估一帧时回调，在分析线程中执行
+         * @param score 评分
+         * @param threshold 评估时的阈值
+         * @param accepted 是否需要解码
+         */
+        void onSharpness(float score, float threshold, boolean accepted);
+    }
+}
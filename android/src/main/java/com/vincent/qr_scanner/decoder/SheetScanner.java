@@ -0,0 +1,153 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
+import com.google.zxing.multi.MultipleBarcodeReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * 整页扫描：将一张较大的图片（如：贴满标签的单据、货架照片等）切分成相互重叠的分块，
+ * 在{@link DecodeExecutor}中并行识别每个分块中的所有码，再通过{@link ResultDeduplicator}去掉分块重叠区域中重复识别出的码
+ *
+ * 分块之间的重叠比例需保证图片中的每个码都能完整的落在至少一个分块中；
+ * 返回结果中的坐标点均已映射为整张图片中的坐标
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/09 11:20
+ */
+public final class SheetScanner {
+
+    /**
+     * 默认的分块边长
+     */
+    public static final int DEFAULT_TILE_SIZE = 640;
+    /**
+     * 默认相邻分块之间的重叠比例
+     */
+    public static final float DEFAULT_TILE_OVERLAP = 0.35f;
+
+    private final DecodeProfile profile;
+    private final int tileSize;
+    private final float tileOverlap;
+
+    public SheetScanner(@NonNull DecodeProfile profile) {
+        this(profile, DEFAULT_TILE_SIZE, DEFAULT_TILE_OVERLAP);
+    }
+
+    /**
+     *
+     * @param profile 解码配置文件
+     * @param tileSize 分块边长
+     * @param tileOverlap 相邻分块之间的重叠比例
+     */
+    public SheetScanner(@NonNull DecodeProfile profile, int tileSize, @FloatRange(from = 0.0, to = 1.0, toInclusive = false) float tileOverlap) {
+        this.profile = profile;
+        this.tileSize = tileSize;
+        this.tileOverlap = tileOverlap;
+    }
+
+    /**
+     * 识别图片中的所有码，会阻塞当前线程直到所有分块识别完成；在{@link DecodeExecutor}的线程中调用时依次识别每个分块，避免占满线程池导致死锁；
+     * 某个分块识别出错时只丢弃这个分块的结果
+     * @param source 整张图片的亮度源
+     * @return 按从上到下、从左到右排列的识别结果，没有识别到时为空列表
+     */
+    @NonNull
+    public List<Result> scan(@NonNull LuminanceSource source) {
+        List<Callable<List<Result>>> tasks = new ArrayList<>();
+        int width = source.getWidth();
+        int height = source.getHeight();
+        int step = Math.max(1, (int) (tileSize * (1 - tileOverlap)));
+        for (int top : calculateTileOffsets(height, tileSize, step)) {
+            for (int left : calculateTileOffsets(width, tileSize, step)) {
+                int tileWidth = Math.min(tileSize, width - left);
+                int tileHeight = Math.min(tileSize, height - top);
+                tasks.add(() -> decodeTile(source, left, top, tileWidth, tileHeight));
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        if (DecodeExecutor.isDecodeThread()) {
+            for (Callable<List<Result>> task : tasks) {
+                try {
+                    results.addAll(task.call());
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+            return ResultDeduplicator.deduplicate(results);
+        }
+        try {
+            for (Future<List<Result>> future : DecodeExecutor.get().invokeAll(tasks)) {
+                try {
+                    results.addAll(future.get());
+                } catch (ExecutionException e) {
+                    //ZXing在一些异常的输入下会抛出运行时异常，不影响其它分块
+                    e.printStackTrace();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ResultDeduplicator.deduplicate(results);
+    }
+
+    /**
+     * 计算分块的起始位置，最后一个分块与边缘对齐
+     */
+    private static List<Integer> calculateTileOffsets(int length, int tileSize, int step) {
+        List<Integer> offsets = new ArrayList<>();
+        if (length <= tileSize) {
+            offsets.add(0);
+            return offsets;
+        }
+        for (int offset = 0; ; offset += step) {
+            if (offset + tileSize >= length) {
+                offsets.add(length - tileSize);
+                break;
+            }
+            offsets.add(offset);
+        }
+        return offsets;
+    }
+
+    /**
+     * 识别一个分块中的所有码，分块较多，所以只使用{@link DecodeProfile#getFastHints()}；
+     * 先采用{@link HybridBinarizer}，没有识别到时再采用{@link GlobalHistogramBinarizer}
+     */
+    private List<Result> decodeTile(LuminanceSource source, int left, int top, int width, int height) {
+        LuminanceSource tile = AreaRectAnalyzer.crop(source, left, top, width, height);
+        MultipleBarcodeReader reader = new GenericMultipleBarcodeReader(profile.getReader(false));
+        Result[] results = decodeMultiple(reader, new HybridBinarizer(tile));
+        if (results.length == 0) {
+            results = decodeMultiple(reader, new GlobalHistogramBinarizer(tile));
+        }
+        List<Result> list = new ArrayList<>(results.length);
+        for (Result result : results) {
+            list.add(TransformLuminanceSource.translate(result, left, top));
+        }
+        return list;
+    }
+
+    private static Result[] decodeMultiple(MultipleBarcodeReader reader, Binarizer binarizer) {
+        try {
+            return reader.decodeMultiple(new BinaryBitmap(binarizer));
+        } catch (NotFoundException e) {
+            return new Result[0];
+        }
+    }
+}
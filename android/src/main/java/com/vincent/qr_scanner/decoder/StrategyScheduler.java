@@ -0,0 +1,239 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 解码策略调度器：记录本次扫码过程中每个{@link DecodeStrategy}的成功率和耗时，
+ * 据此调整解码策略的尝试顺序，并跳过一直没有成功过的策略，从而减少每帧的解码尝试次数
+ *
+ * 为了避免环境变化后一直跳过某些策略，每隔{@link #EXPLORE_INTERVAL}帧会按原始顺序尝试一次全部的策略；
+ * 一帧中可能会进行多轮解码（如：金字塔解码、分级解码、多个候选区域），所以由分析器在每帧开始时调用一次{@link #onFrame()}，同一帧中的每一轮解码使用相同的决定
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/04 11:15
+ */
+public class StrategyScheduler {
+
+    /**
+     * 累计成功次数达到此值后才开始调整顺序
+     */
+    static final int MIN_SUCCESS_COUNT = 3;
+    /**
+     * 尝试次数达到此值且从未成功过的策略，会被跳过
+     */
+    static final int SKIP_ATTEMPT_COUNT = 30;
+    /**
+     * 每隔多少帧按原始顺序尝试一次全部的策略
+     */
+    static final int EXPLORE_INTERVAL = 20;
+
+    private final List<DecodeStrategy> strategies;
+    private final Statistics[] statistics;
+
+    private List<DecodeStrategy> scheduledStrategies;
+    private boolean isDirty;
+    private int successCount;
+    private long frameCount;
+    private boolean isExploring;
+
+    public StrategyScheduler(@NonNull List<DecodeStrategy> strategies) {
+        this.strategies = strategies;
+        this.statistics = new Statistics[strategies.size()];
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new Statistics(strategies.get(i), i);
+        }
+        this.scheduledStrategies = strategies;
+    }
+
+    /**
+     * 开始新的一帧，每帧只调用一次
+     */
+    public synchronized void onFrame() {
+        isExploring = ++frameCount % EXPLORE_INTERVAL == 0;
+    }
+
+    /**
+     * 获取当前帧需要依次尝试的解码策略，同一帧中可调用多次
+     * @return
+     */
+    @NonNull
+    public synchronized List<DecodeStrategy> nextStrategies() {
+        if (isExploring) {
+            return strategies;
+        }
+        if (isDirty) {
+            isDirty = false;
+            scheduledStrategies = schedule();
+        }
+        return scheduledStrategies;
+    }
+
+    /**
+     * 记录解码策略的一次尝试
+     * @param strategy 解码策略
+     * @param success 是否解码成功
+     * @param costNanos 耗时（单位：纳秒）
+     */
+    public synchronized void record(@NonNull DecodeStrategy strategy, boolean success, long costNanos) {
+        int index = strategies.indexOf(strategy);
+        if (index < 0) {
+            return;
+        }
+        Statistics stats = statistics[index];
+        stats.attemptCount++;
+        stats.totalCostNanos += costNanos;
+        if (success) {
+            stats.successCount++;
+            successCount++;
+            isDirty = true;
+        } else if (stats.successCount == 0 && stats.attemptCount == SKIP_ATTEMPT_COUNT) {
+            isDirty = true;
+        }
+    }
+
+    private List<DecodeStrategy> schedule() {
+        if (successCount < MIN_SUCCESS_COUNT) {
+            return strategies;
+        }
+        List<Statistics> list = new ArrayList<>(statistics.length);
+        for (Statistics stats : statistics) {
+            //已经有其它策略成功过时，跳过一直没有成功过的策略
+            if (stats.successCount > 0 || stats.attemptCount < SKIP_ATTEMPT_COUNT) {
+                list.add(stats);
+            }
+        }
+        Collections.sort(list, (s1, s2) -> {
+            int compare = Double.compare(s2.getScore(), s1.getScore());
+            return compare != 0 ? compare : s1.index - s2.index;
+        });
+        List<DecodeStrategy> result = new ArrayList<>(list.size());
+        for (Statistics stats : list) {
+            result.add(stats.strategy);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 获取每个解码策略的统计信息，可用于调优
+     * @return 按原始顺序排列的统计信息快照
+     */
+    @NonNull
+    public synchronized List<Statistics> getStatistics() {
+        List<Statistics> list = new ArrayList<>(statistics.length);
+        for (Statistics stats : statistics) {
+            list.add(stats.copy());
+        }
+        return list;
+    }
+
+    /**
+     * 重置统计信息，开始新的扫码过程
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < statistics.length; i++) {
+            statistics[i] = new Statistics(strategies.get(i), i);
+        }
+        scheduledStrategies = strategies;
+        isDirty = false;
+        successCount = 0;
+        frameCount = 0;
+        isExploring = false;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "StrategyScheduler{" +
+                "statistics=" + getStatistics() +
+                ", scheduledStrategies=" + scheduledStrategies +
+                '}';
+    }
+
+    /**
+     * 解码策略的统计信息
+     */
+    public static final class Statistics {
+        private final DecodeStrategy strategy;
+        private final int index;
+        private int attemptCount;
+        private int successCount;
+        private long totalCostNanos;
+
+        Statistics(DecodeStrategy strategy, int index) {
+            this.strategy = strategy;
+            this.index = index;
+        }
+
+        Statistics copy() {
+            Statistics stats = new Statistics(strategy, index);
+            stats.attemptCount = attemptCount;
+            stats.successCount = successCount;
+            stats.totalCostNanos = totalCostNanos;
+            return stats;
+        }
+
+        @NonNull
+        public DecodeStrategy getStrategy() {
+            return strategy;
+        }
+
+        /**
+         * 尝试次数
+         * @return
+         */
+        public int getAttemptCount() {
+            return attemptCount;
+        }
+
+        /**
+         * 成功次数
+         * @return
+         */
+        public int getSuccessCount() {
+            return successCount;
+        }
+
+        /**
+         * 成功率
+         * @return
+         */
+        public float getSuccessRate() {
+            return attemptCount > 0 ? (float) successCount / attemptCount : 0;
+        }
+
+        /**
+         * 平均耗时（单位：毫秒）
+         * @return
+         */
+        public float getAverageCostMillis() {
+            return attemptCount > 0 ? totalCostNanos / 1e6f / attemptCount : 0;
+        }
+
+        /**
+         * 评分：单位耗时内的预期成功次数，成功率采用拉普拉斯平滑，避免尝试次数较少时评分波动过大；
+         * 还没有尝试过的策略评分为0，保持原始顺序排在后面
+         * @return
+         */
+        double getScore() {
+            if (attemptCount == 0) {
+                return 0;
+            }
+            double successRate = (successCount + 1.0) / (attemptCount + 2.0);
+            return successRate / Math.max(getAverageCostMillis(), 0.1);
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "strategy=" + strategy +
+                    ", attemptCount=" + attemptCount +
+                    ", successCount=" + successCount +
+                    ", successRate=" + getSuccessRate() +
+                    ", averageCostMillis=" + getAverageCostMillis() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * 多帧时域降噪器：光线较暗时感光度较高，单帧的亮度数据噪点较多，二值化后的矩阵布满斑点，定位图形很难被找到；
+ * 相机静止时，对最近几帧分析区域的亮度取加权平均，随机噪点会相互抵消，而码的图像保持不变
+ *
+ * 单帧解码失败时才累加当前帧，累加的帧数达到{@link #MIN_FRAME_COUNT}后返回降噪后的亮度源；
+ * 加权平均为指数移动平均，前{@link #getFrameCount()}帧内等同于算术平均，之后每帧的权重固定为1/{@link #getFrameCount()}；
+ * 分析区域的尺寸发生变化，或缩略签名与上一帧相差超过{@link #getMotionThreshold()}时，认为相机发生了移动，重新开始累加；
+ * 签名为{@link #SIGNATURE_SIZE}x{@link #SIGNATURE_SIZE}个格子中所有像素的平均亮度，噪点在格子内基本抵消，不会被误判为移动
+ *
+ * 累加值为定点数，累加、输出和签名共用一次遍历，都写入复用的缓冲区；主要在分析线程中调用，非线程安全
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/13 15:20
+ */
+public class TemporalDenoiser {
+
+    /**
+     * 默认参与平均的帧数
+     */
+    public static final int DEFAULT_FRAME_COUNT = 4;
+    /**
+     * 默认的运动阈值：签名中每个格子的平均亮度差
+     */
+    public static final float DEFAULT_MOTION_THRESHOLD = 6f;
+    /**
+     * 至少累加多少帧后才返回降噪后的亮度源
+     */
+    static final int MIN_FRAME_COUNT = 2;
+    /**
+     * 定点数的小数位数
+     */
+    private static final int FRACTION_BITS = 8;
+    /**
+     * 签名的边长
+     */
+    static final int SIGNATURE_SIZE = 16;
+
+    private final int frameCount;
+    private final float motionThreshold;
+
+    private int[] signature = new int[SIGNATURE_SIZE * SIGNATURE_SIZE];
+    private int[] lastSignature = new int[SIGNATURE_SIZE * SIGNATURE_SIZE];
+    private final int[] cellCounts = new int[SIGNATURE_SIZE * SIGNATURE_SIZE];
+    private int[] columnCells = new int[0];
+    private int[] accumulator = new int[0];
+    private byte[] buffer = new byte[0];
+    private byte[] row = new byte[0];
+    private int width;
+    private int height;
+    private int accumulatedCount;
+    private float lastMotion;
+
+    public TemporalDenoiser() {
+        this(DEFAULT_FRAME_COUNT, DEFAULT_MOTION_THRESHOLD);
+    }
+
+    /**
+     *
+     * @param frameCount 参与平均的帧数
+     * @param motionThreshold 运动阈值，签名的差异超过此值时重新开始累加
+     */
+    public TemporalDenoiser(@IntRange(from = MIN_FRAME_COUNT) int frameCount, float motionThreshold) {
+        this.frameCount = Math.max(MIN_FRAME_COUNT, frameCount);
+        this.motionThreshold = motionThreshold;
+    }
+
+    /**
+     * 累加单帧解码失败的分析区域
+     * @param source 分析区域
+     * @return 累加的帧数足够时返回坐标与{@code source}一致的降噪后的亮度源，否则返回{@code null}
+     */
+    @Nullable
+    public LuminanceSource accumulate(@NonNull LuminanceSource source) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        boolean isSizeChanged = width != this.width || height != this.height;
+        if (isSizeChanged) {
+            if (accumulator.length < width * height) {
+                accumulator = new int[width * height];
+                buffer = new byte[width * height];
+            }
+            if (row.length < width) {
+                row = new byte[width];
+                columnCells = new int[width];
+            }
+            for (int x = 0; x < width; x++) {
+                columnCells[x] = x * SIGNATURE_SIZE / width;
+            }
+            this.width = width;
+            this.height = height;
+            accumulatedCount = 0;
+            lastMotion = Float.MAX_VALUE;
+        }
+
+        int previousCount = accumulatedCount;
+        accumulatedCount = Math.min(previousCount + 1, frameCount);
+        accumulate(source, (1 << FRACTION_BITS) / accumulatedCount, true);
+        if (previousCount > 0) {
+            long sum = 0;
+            for (int i = 0; i < signature.length; i++) {
+                sum += Math.abs(signature[i] - lastSignature[i]);
+            }
+            lastMotion = (float) sum / signature.length;
+            if (lastMotion > motionThreshold) {
+                //相机发生了移动，丢弃之前的累加值，从当前帧重新开始
+                accumulatedCount = 1;
+                accumulate(source, 1 << FRACTION_BITS, false);
+            }
+        }
+        //交换缓冲区，记录当前帧的签名
+        int[] temp = lastSignature;
+        lastSignature = signature;
+        signature = temp;
+
+        if (accumulatedCount < MIN_FRAME_COUNT) {
+            return null;
+        }
+        return new BufferedLuminanceSource(source, buffer);
+    }
+
+    /**
+     * 按权重将分析区域累加到累加值中，同时输出降噪后的亮度
+     * @param source 分析区域
+     * @param weight 当前帧的权重，为1时直接覆盖之前的累加值
+     * @param isComputeSignature 是否同时统计当前帧的签名：{@link #SIGNATURE_SIZE}x{@link #SIGNATURE_SIZE}个格子中所有像素的平均亮度
+     */
+    private void accumulate(@NonNull LuminanceSource source, int weight, boolean isComputeSignature) {
+        int width = this.width;
+        int height = this.height;
+        int[] accumulator = this.accumulator;
+        byte[] buffer = this.buffer;
+        int[] signature = this.signature;
+        int[] columnCells = this.columnCells;
+        if (isComputeSignature) {
+            for (int i = 0; i < signature.length; i++) {
+                signature[i] = 0;
+                cellCounts[i] = 0;
+            }
+        }
+        for (int y = 0, offset = 0; y < height; y++, offset += width) {
+            byte[] luminances = source.getRow(y, row);
+            for (int x = 0, i = offset; x < width; x++, i++) {
+                int value = accumulator[i];
+                value += (((luminances[x] & 0xFF) << FRACTION_BITS) - value) * weight >> FRACTION_BITS;
+                accumulator[i] = value;
+                buffer[i] = (byte) ((value + (1 << (FRACTION_BITS - 1))) >> FRACTION_BITS);
+            }
+            if (isComputeSignature) {
+                int cell = y * SIGNATURE_SIZE / height * SIGNATURE_SIZE;
+                for (int x = 0; x < width; x++) {
+                    signature[cell + columnCells[x]] += luminances[x] & 0xFF;
+                    cellCounts[cell + columnCells[x]]++;
+                }
+            }
+        }
+        if (isComputeSignature) {
+            for (int i = 0; i < signature.length; i++) {
+                signature[i] = cellCounts[i] > 0 ? signature[i] / cellCounts[i] : 0;
+            }
+        }
+    }
+
+    /**
+     * 参与平均的帧数
+     * @return
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * 运动阈值
+     * @return
+     */
+    public float getMotionThreshold() {
+        return motionThreshold;
+    }
+
+    /**
+     * 当前已累加的帧数
+     * @return
+     */
+    public int getAccumulatedCount() {
+        return accumulatedCount;
+    }
+
+    /**
+     * 最近一帧与上一帧之间的签名差异
+     * @return
+     */
+    public float getLastMotion() {
+        return lastMotion;
+    }
+
+    /**
+     * 重置状态，解码成功或开始新的扫码过程时调用
+     */
+    public void reset() {
+        accumulatedCount = 0;
+        lastMotion = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TemporalDenoiser{" +
+                "frameCount=" + frameCount +
+                ", motionThreshold=" + motionThreshold +
+                ", accumulatedCount=" + accumulatedCount +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package com.vincent.qr_scanner.decoder;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.Result;
+import com.google.zxing.ResultPoint;
+
+/**
+ * 变换亮度源：基于另一个亮度源的视图，读取时才按行进行坐标映射，不会额外生成一份变换后的图像数据
+ *
+ * 内置的实现如下：
+ * @see {@link RotateLuminanceSource}
+ * @see {@link CropLuminanceSource}
+ * @see {@link InvertLuminanceSource}
+ * @see {@link MirrorLuminanceSource}
+ * @see {@link DownsampledLuminanceSource}
+ * @see {@link BufferedLuminanceSource}
+ *
+ * @Author: Vincent
+ * @CreateAt: 2021/02/02 14:20
+ */
+public abstract class TransformLuminanceSource extends LuminanceSource {
+
+    final LuminanceSource delegate;
+
+    protected TransformLuminanceSource(@NonNull LuminanceSource delegate, int width, int height) {
+        super(width, height);
+        this.delegate = delegate;
+    }
+
+    /**
+     * 被变换的亮度源
+     * @return
+     */
+    @NonNull
+    public LuminanceSource getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 将当前视图中的坐标点映射为{@link #getDelegate()}中的坐标点
+     * @param point
+     * @return
+     */
+    @NonNull
+    public abstract ResultPoint toDelegatePoint(@NonNull ResultPoint point);
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        int height = getHeight();
+        byte[] matrix = new byte[width * height];
+        byte[] row = new byte[width];
+        for (int y = 0; y < height; y++) {
+            row = getRow(y, row);
+            System.arraycopy(row, 0, matrix, y * width, width);
+        }
+        return matrix;
+    }
+
+    @Override
+    public boolean isCropSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        return new CropLuminanceSource(this, left, top, width, height);
+    }
+
+    @Override
+    public boolean isRotateSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource rotateCounterClockwise() {
+        return new RotateLuminanceSource(this, 270);
+    }
+
+    @Override
+    public LuminanceSource invert() {
+        return new InvertLuminanceSource(this);
+    }
+
+    /**
+     * 读取{@link #getDelegate()}中的一行，确保返回的是可以修改的数组
+     */
+    byte[] getDelegateRow(int y, byte[] row) {
+        byte[] result = delegate.getRow(y, row);
+        if (result != row && row != null && row.length >= delegate.getWidth()) {
+            System.arraycopy(result, 0, row, 0, delegate.getWidth());
+            return row;
+        }
+        return result;
+    }
+
+    /**
+     * 将在变换视图中识别出的结果，映射回{@code target}的坐标系
+     * @param result 识别结果
+     * @param view 识别时使用的亮度源
+     * @param target 需要映射到的亮度源，一般为{@code view}所基于的分析区域
+     * @return
+     */
+    @Nullable
+    public static Result toSourceResult(@Nullable Result result, @NonNull LuminanceSource view, @NonNull LuminanceSource target) {
+        if (result == null || view == target || result.getResultPoints() == null) {
+            return result;
+        }
+        ResultPoint[] points = result.getResultPoints().clone();
+        LuminanceSource source = view;
+        while (source != target && source instanceof TransformLuminanceSource) {
+            TransformLuminanceSource transform = (TransformLuminanceSource) source;
+            for (int i = 0; i < points.length; i++) {
+                if (points[i] != null) {
+                    points[i] = transform.toDelegatePoint(points[i]);
+                }
+            }
+            source = transform.getDelegate();
+        }
+        Result mapped = new Result(result.getText(), result.getRawBytes(), result.getNumBits(), points, result.getBarcodeFormat(), result.getTimestamp());
+        mapped.putAllMetadata(result.getResultMetadata());
+        return mapped;
+    }
+
+    /**
+     * 将在子区域中识别出的结果平移到父区域的坐标系
+     * @param result 识别结果
+     * @param left 子区域在父区域中的左边界
+     * @param top 子区域在父区域中的上边界
+     * @return
+     */
+    @Nullable
+    public static Result translate(@Nullable Result result, int left, int top) {
+        if (result == null || result.getResultPoints() == null || (left == 0 && top == 0)) {
+            return result;
+        }
+        ResultPoint[] points = result.getResultPoints();
+        ResultPoint[] translated = new ResultPoint[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] != null) {
+                translated[i] = new ResultPoint(points[i].getX() + left, points[i].getY() + top);
+            }
+        }
+        Result mapped = new Result(result.getText(), result.getRawBytes(), result.getNumBits(), translated, result.getBarcodeFormat(), result.getTimestamp());
+        mapped.putAllMetadata(result.getResultMetadata());
+        return mapped;
+    }
+}
@@ -21,6 +21,7 @@ import android.view.View;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.ColorRes;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 
@@ -134,6 +135,8 @@ public class ViewfinderView extends View {
      */
     private Rect frame;
 
+    private OnFrameChangedListener onFrameChangedListener;
+
     /**
      * 扫描区边角的宽
      */
@@ -363,6 +366,40 @@ public class ViewfinderView extends View {
         }
 
         frame = new Rect((int)leftOffsets, (int)topOffsets, (int)leftOffsets + frameWidth, (int)topOffsets + frameHeight);
+        if(onFrameChangedListener != null){
+            onFrameChangedListener.onFrameChanged(new Rect(frame));
+        }
+    }
+
+    /**
+     * 获取扫码框
+     * @return 扫码框在当前控件中的区域，控件还没有布局时为{@code null}
+     */
+    @Nullable
+    public Rect getFrameRect() {
+        return frame != null ? new Rect(frame) : null;
+    }
+
+    /**
+     * 设置扫码框变化监听，扫码框已经计算好时会立即回调一次
+     * @param listener
+     */
+    public void setOnFrameChangedListener(@Nullable OnFrameChangedListener listener) {
+        this.onFrameChangedListener = listener;
+        if(listener != null && frame != null){
+            listener.onFrameChanged(new Rect(frame));
+        }
+    }
+
+    /**
+     * 扫码框变化监听
+     */
+    public interface OnFrameChangedListener {
+        /**
+         * 扫码框发生变化（如：控件尺寸变化）时回调，在主线程中执行
+         * @param frame 扫码框在{@link ViewfinderView}中的区域
+         */
+        void onFrameChanged(@NonNull Rect frame);
     }
 
     @Override